@@ -0,0 +1,211 @@
+/******************************************************************************
+ *  Compilation:  javac BinaryReplay.java
+ *  Execution:    java BinaryReplay input.txt output.bin
+ *  Dependencies: SiteConsumer.java
+ *
+ *  Converts a text percolation input file (N followed by row/column pairs)
+ *  to the binary replay format read by PercolationVisualizer.
+ *
+ *  The binary format is the 4-byte magic "PRPL", a version byte, then N and
+ *  each opened site as an unsigned LEB128 varint. Sites are stored as the
+ *  zigzag-encoded difference between consecutive indices row * N + col, so
+ *  nearby opens take a byte or two instead of a line of text.
+ *
+ ******************************************************************************/
+package hw2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/** Reads and writes percolation recordings in the binary replay format. The
+ * reader maps the file in chunks, so recordings larger than 2 GB stream
+ * through a single SiteConsumer without being loaded into the heap.
+ */
+public class BinaryReplay {
+    public static final int MAGIC = 0x5052504C;
+    public static final int VERSION = 1;
+    private static final int HEADER_BYTES = 5;
+    private static final int MAX_VARINT_BYTES = 5;
+    private static final long CHUNK_BYTES = 1L << 28;
+
+    private File file;
+    private int N;
+    private long start;
+
+    /** Opens the binary recording in file and reads its header.
+     *
+     * @param file
+     */
+    public BinaryReplay(File file) {
+        this.file = file;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new java.lang.IllegalArgumentException(file + " is not a binary replay file.");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new java.lang.IllegalArgumentException("Unsupported replay version "
+                        + version + " in " + file + ".");
+            }
+            long value = 0;
+            int shift = 0;
+            int b;
+            start = HEADER_BYTES;
+            do {
+                b = in.readUnsignedByte();
+                value |= (long) (b & 0x7F) << shift;
+                shift += 7;
+                start += 1;
+            } while ((b & 0x80) != 0 && shift < 7 * MAX_VARINT_BYTES);
+            if (value <= 0 || value > Integer.MAX_VALUE) {
+                throw new java.lang.IllegalArgumentException("Bad grid size " + value + " in " + file + ".");
+            }
+            N = (int) value;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file + ".", e);
+        }
+    }
+
+    /** Returns true if filename starts with the binary replay magic number.
+     *
+     * @param filename
+     */
+    public static boolean isBinary(String filename) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(filename))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /** Returns the grid size N of the recording. */
+    public int size() {
+        return N;
+    }
+
+    /** Passes every recorded site, in order, to consumer.
+     *
+     * @param consumer
+     */
+    public void forEach(SiteConsumer consumer) {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            FileChannel channel = raf.getChannel();
+            long end = channel.size();
+            long position = start;
+            int index = 0;
+            while (position < end) {
+                // map a little past the chunk so a varint never straddles two mappings
+                long size = Math.min(CHUNK_BYTES + MAX_VARINT_BYTES, end - position);
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+                int stop = position + size == end ? (int) size : (int) CHUNK_BYTES;
+                while (buffer.position() < stop) {
+                    int value = 0;
+                    int shift = 0;
+                    int b;
+                    do {
+                        b = buffer.get();
+                        value |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    index += (value >>> 1) ^ -(value & 1);
+                    consumer.accept(index / N, index % N);
+                }
+                position += buffer.position();
+            }
+        } catch (java.nio.BufferUnderflowException e) {
+            throw new java.lang.IllegalArgumentException(file + " ends in the middle of a site.");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + file + ".", e);
+        }
+    }
+
+    /** Converts the text recording in input to the binary format in output.
+     * Returns the number of sites written.
+     *
+     * @param input
+     * @param output
+     */
+    public static long convert(File input, File output) {
+        try (InputStream in = new BufferedInputStream(new FileInputStream(input), 1 << 16);
+             OutputStream out = new BufferedOutputStream(new FileOutputStream(output), 1 << 16)) {
+            long N = readLong(in);
+            if (N <= 0 || N > 46340) {
+                throw new java.lang.IllegalArgumentException("Bad grid size " + N + " in " + input + ".");
+            }
+            out.write(MAGIC >>> 24);
+            out.write(MAGIC >>> 16);
+            out.write(MAGIC >>> 8);
+            out.write(MAGIC);
+            out.write(VERSION);
+            writeVarint(out, (int) N);
+
+            long count = 0;
+            int previous = 0;
+            long row;
+            while ((row = readLong(in)) >= 0) {
+                long col = readLong(in);
+                if (col < 0 || row >= N || col >= N) {
+                    throw new java.lang.IllegalArgumentException("Bad site " + row + " " + col
+                            + " in " + input + ".");
+                }
+                int index = (int) (row * N + col);
+                int delta = index - previous;
+                writeVarint(out, (delta << 1) ^ (delta >> 31));
+                previous = index;
+                count += 1;
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not convert " + input + ".", e);
+        }
+    }
+
+    /* Returns the next non-negative integer in in, or -1 at the end of input. */
+    private static long readLong(InputStream in) throws IOException {
+        int c = in.read();
+        while (c != -1 && Character.isWhitespace(c)) {
+            c = in.read();
+        }
+        if (c == -1) {
+            return -1;
+        }
+        if (c < '0' || c > '9') {
+            throw new java.lang.IllegalArgumentException("Expected a non-negative integer, found '"
+                    + (char) c + "'.");
+        }
+        long value = 0;
+        while (c >= '0' && c <= '9') {
+            value = 10 * value + (c - '0');
+            if (value > Integer.MAX_VALUE) {
+                throw new java.lang.IllegalArgumentException("Integer too large.");
+            }
+            c = in.read();
+        }
+        return value;
+    }
+
+    private static void writeVarint(OutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    public static void main(String[] args) {
+        long count = convert(new File(args[0]), new File(args[1]));
+        System.out.printf("%d sites written to %s%n", count, args[1]);
+    }
+}
@@ -0,0 +1,207 @@
+package hw2;
+
+import hw2.metrics.Metrics;
+
+/** A Percolation system that also keeps statistics on its clusters. It uses
+ * one ClusterUnionFind with no virtual sites, so its components are exactly
+ * the clusters of open sites, and tags each root with whether the cluster
+ * touches the top row and whether it touches the bottom row. Keeping sizes
+ * and the size histogram costs 8 more bytes per site than
+ * UnionFindPercolation and a little work on every union, which is why the
+ * other systems leave it out.
+ */
+public class ClusterPercolation implements ClusterStatistics {
+    private static final int TOP = 1;
+    private static final int BOTTOM = 2;
+    private static final int SPANNING = TOP | BOTTOM;
+
+    private ClusterUnionFind clusters;
+    private boolean[] sites;
+    private int openSites;
+    private int colSize;
+    private boolean percolates;
+    private int spanningMass;
+
+    /** A constructor that creates a N * N ClusterPercolation instance.
+     *
+     * @param N
+     */
+    public ClusterPercolation(int N) {
+        if (N <= 0) {
+            throw new java.lang.IllegalArgumentException("The grid's "
+                    + "dimensions must be grater than 0.");
+        }
+        colSize = N;
+        clusters = new ClusterUnionFind(N * N);
+        sites = new boolean[N * N];
+        openSites = 0;
+        percolates = false;
+        spanningMass = 0;
+    }
+
+    /** A method that converts a row and column index to a site index, after
+     * checking that they are in range for this ClusterPercolation instance.
+     *
+     * @param row
+     * @param col
+     * @return int
+     */
+    private int validate(int row, int col) {
+        if (row < 0 || row >= colSize || col < 0 || col >= colSize) {
+            throw new java.lang.IndexOutOfBoundsException("Row " + row + " and column " + col
+                    + " are not between 0 and " + (colSize - 1));
+        }
+        return row * colSize + col;
+    }
+
+    /** Joins a newly opened site with one open neighbor, keeping the spanning
+     * mass up to date.
+     */
+    private void connect(int index, int neighbor) {
+        if (Metrics.ENABLED) {
+            Metrics.union();
+        }
+        int rootP = clusters.find(index);
+        int rootQ = clusters.find(neighbor);
+        if (rootP != rootQ) {
+            int before = spanningSize(rootP) + spanningSize(rootQ);
+            int root = clusters.link(rootP, rootQ);
+            if (clusters.tags(root) == SPANNING) {
+                percolates = true;
+            }
+            spanningMass += spanningSize(root) - before;
+        }
+    }
+
+    private int spanningSize(int root) {
+        if (clusters.tags(root) != SPANNING) {
+            return 0;
+        }
+        return clusters.componentSize(root);
+    }
+
+    /** A method that opens a Site if it is not open already.
+     *
+     * @param row
+     * @param col
+     */
+    @Override
+    public void open(int row, int col) {
+        int index = validate(row, col);
+        if (sites[index]) {
+            return;
+        }
+        sites[index] = true;
+        openSites += 1;
+        clusters.add(index);
+        if (row == 0) {
+            clusters.addTags(index, TOP);
+        }
+        if (row == colSize - 1) {
+            clusters.addTags(index, BOTTOM);
+        }
+        if (clusters.tags(index) == SPANNING) {
+            percolates = true;
+            spanningMass += 1;
+        }
+        if (row > 0 && sites[index - colSize]) {
+            connect(index, index - colSize);
+        }
+        if (row < colSize - 1 && sites[index + colSize]) {
+            connect(index, index + colSize);
+        }
+        if (col > 0 && sites[index - 1]) {
+            connect(index, index - 1);
+        }
+        if (col < colSize - 1 && sites[index + 1]) {
+            connect(index, index + 1);
+        }
+    }
+
+    /** A method that checks if a Site is open.
+     *
+     * @param row
+     * @param col
+     * @return boolean
+     */
+    @Override
+    public boolean isOpen(int row, int col) {
+        return sites[validate(row, col)];
+    }
+
+    /** A method that checks if a Site is full.
+     *
+     * @param row
+     * @param col
+     * @return boolean
+     */
+    @Override
+    public boolean isFull(int row, int col) {
+        int index = validate(row, col);
+        return sites[index] && (clusters.tags(clusters.find(index)) & TOP) != 0;
+    }
+
+    /** A method that returns the number of open Sites in this ClusterPercolation instance.
+     *
+     * @return int
+     */
+    @Override
+    public int numberOfOpenSites() {
+        return openSites;
+    }
+
+    /** A method that checks if a ClusterPercolation instance percolates.
+     *
+     * @return boolean
+     */
+    @Override
+    public boolean percolates() {
+        return percolates;
+    }
+
+    /** A method that returns the number of clusters of open Sites.
+     *
+     * @return int
+     */
+    @Override
+    public int clusterCount() {
+        return clusters.clusterCount();
+    }
+
+    /** A method that returns the number of Sites in the largest cluster.
+     *
+     * @return int
+     */
+    @Override
+    public int largestCluster() {
+        return clusters.largestCluster();
+    }
+
+    /** A method that returns the number of clusters with exactly size Sites.
+     *
+     * @param size
+     * @return int
+     */
+    @Override
+    public int clustersOfSize(int size) {
+        return clusters.clustersOfSize(size);
+    }
+
+    /** A method that returns the cluster size histogram.
+     *
+     * @return int[]
+     */
+    @Override
+    public int[] sizeHistogram() {
+        return clusters.sizeHistogram();
+    }
+
+    /** A method that returns the number of Sites in spanning clusters.
+     *
+     * @return int
+     */
+    @Override
+    public int spanningMass() {
+        return spanningMass;
+    }
+}
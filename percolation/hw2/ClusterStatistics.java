@@ -0,0 +1,17 @@
+package hw2;
+
+/** A PercolationSystem that keeps statistics on its clusters, the components
+ * of open sites joined through open neighbors.
+ */
+public interface ClusterStatistics extends PercolationSystem {
+    /* Returns the number of clusters. */
+    int clusterCount();
+    /* Returns the number of sites in the largest cluster. */
+    int largestCluster();
+    /* Returns the number of clusters with exactly size sites. */
+    int clustersOfSize(int size);
+    /* Returns an array whose entry s is the number of clusters of size s, up to the largest. */
+    int[] sizeHistogram();
+    /* Returns the number of sites in clusters that touch both the top and the bottom row. */
+    int spanningMass();
+}
@@ -0,0 +1,113 @@
+package hw2;
+
+import java.util.Arrays;
+
+/** Cluster statistics aggregated over many trials: the mean and spread of the
+ * spanning-cluster mass, the largest-cluster size and the number of clusters,
+ * each as a fraction of the sites in the grid, and the total number of
+ * clusters of each size. Partial results from different threads can be
+ * merged, like RunningStats.
+ */
+public class ClusterStats {
+    private RunningStats spanningMass;
+    private RunningStats largestCluster;
+    private RunningStats clusterDensity;
+    private long[] histogram;
+
+    /** Creates an empty ClusterStats. */
+    public ClusterStats() {
+        spanningMass = new RunningStats();
+        largestCluster = new RunningStats();
+        clusterDensity = new RunningStats();
+        histogram = new long[1];
+    }
+
+    /** Adds the current clusters of an N-by-N system as one trial.
+     *
+     * @param system
+     * @param N
+     */
+    public void add(ClusterStatistics system, int N) {
+        double sites = (double) N * N;
+        spanningMass.add(system.spanningMass() / sites);
+        largestCluster.add(system.largestCluster() / sites);
+        clusterDensity.add(system.clusterCount() / sites);
+        int[] sizes = system.sizeHistogram();
+        if (sizes.length > histogram.length) {
+            histogram = Arrays.copyOf(histogram, sizes.length);
+        }
+        for (int s = 1; s < sizes.length; s += 1) {
+            histogram[s] += sizes[s];
+        }
+    }
+
+    /** Folds the trials summarized by other into this ClusterStats.
+     *
+     * @param other
+     * @return this ClusterStats
+     */
+    public ClusterStats merge(ClusterStats other) {
+        spanningMass.merge(other.spanningMass);
+        largestCluster.merge(other.largestCluster);
+        clusterDensity.merge(other.clusterDensity);
+        if (other.histogram.length > histogram.length) {
+            histogram = Arrays.copyOf(histogram, other.histogram.length);
+        }
+        for (int s = 1; s < other.histogram.length; s += 1) {
+            histogram[s] += other.histogram[s];
+        }
+        return this;
+    }
+
+    /** Returns the number of trials.
+     *
+     * @return long
+     */
+    public long trials() {
+        return spanningMass.count();
+    }
+
+    /** Returns the fraction of sites in spanning clusters, over all trials.
+     *
+     * @return RunningStats
+     */
+    public RunningStats spanningMass() {
+        return spanningMass;
+    }
+
+    /** Returns the fraction of sites in the largest cluster, over all trials.
+     *
+     * @return RunningStats
+     */
+    public RunningStats largestCluster() {
+        return largestCluster;
+    }
+
+    /** Returns the number of clusters per site, over all trials.
+     *
+     * @return RunningStats
+     */
+    public RunningStats clusterDensity() {
+        return clusterDensity;
+    }
+
+    /** Returns the size of the largest cluster seen in any trial.
+     *
+     * @return int
+     */
+    public int maxClusterSize() {
+        return histogram.length - 1;
+    }
+
+    /** Returns the mean number of clusters with exactly size sites per trial.
+     *
+     * @param size
+     * @return double
+     */
+    public double meanClustersOfSize(int size) {
+        if (size <= 0 || size >= histogram.length || trials() == 0) {
+            return 0;
+        }
+        return histogram[size] / (double) trials();
+    }
+}
@@ -0,0 +1,111 @@
+package hw2;
+
+import java.util.Arrays;
+
+/** A UnionFind that also keeps cluster statistics over the elements that have
+ * been added: the size of every component, the number of components of each
+ * size and the size of the largest one. Elements start out absent, with size
+ * zero, and join the statistics as singletons when added. Every link
+ * updates the statistics in constant time.
+ */
+public class ClusterUnionFind extends UnionFind {
+    private int[] sizes;
+    private int[] histogram;
+    private int clusters;
+    private int largest;
+
+    /** Creates a ClusterUnionFind over n elements, none of them added yet.
+     *
+     * @param n
+     */
+    public ClusterUnionFind(int n) {
+        super(n);
+        sizes = new int[n];
+        histogram = new int[n + 1];
+        clusters = 0;
+        largest = 0;
+    }
+
+    /** Adds p, which must still be a singleton, as a cluster of size one.
+     * Does nothing if p was added already.
+     *
+     * @param p
+     */
+    public void add(int p) {
+        if (sizes[p] != 0) {
+            return;
+        }
+        sizes[p] = 1;
+        histogram[1] += 1;
+        clusters += 1;
+        largest = Math.max(largest, 1);
+    }
+
+    /** Links two distinct roots of added components and updates the statistics.
+     *
+     * @param rootP
+     * @param rootQ
+     * @return int
+     */
+    @Override
+    public int link(int rootP, int rootQ) {
+        int sizeP = sizes[rootP];
+        int sizeQ = sizes[rootQ];
+        int root = super.link(rootP, rootQ);
+        sizes[root] = sizeP + sizeQ;
+        histogram[sizeP] -= 1;
+        histogram[sizeQ] -= 1;
+        histogram[sizeP + sizeQ] += 1;
+        clusters -= 1;
+        largest = Math.max(largest, sizeP + sizeQ);
+        return root;
+    }
+
+    /** Returns the number of added elements in the component rooted at root.
+     *
+     * @param root
+     * @return int
+     */
+    public int componentSize(int root) {
+        return sizes[root];
+    }
+
+    /** Returns the number of components made of added elements.
+     *
+     * @return int
+     */
+    public int clusterCount() {
+        return clusters;
+    }
+
+    /** Returns the size of the largest component, or 0 if nothing was added.
+     *
+     * @return int
+     */
+    public int largestCluster() {
+        return largest;
+    }
+
+    /** Returns the number of components with exactly size elements.
+     *
+     * @param size
+     * @return int
+     */
+    public int clustersOfSize(int size) {
+        if (size <= 0 || size >= histogram.length) {
+            return 0;
+        }
+        return histogram[size];
+    }
+
+    /** Returns a copy of the histogram, where entry s is the number of
+     * components of size s, up to and including the largest component.
+     *
+     * @return int[]
+     */
+    public int[] sizeHistogram() {
+        int[] copy = Arrays.copyOf(histogram, largest + 1);
+        copy[0] = 0;
+        return copy;
+    }
+}
@@ -0,0 +1,137 @@
+package hw2;
+
+/** A Percolation system for very large grids. Open sites are kept in a long[]
+ * bitset (one bit per site) and the top/bottom flags live in the tag bits of
+ * the UnionFind roots, so the whole system costs a little over four bytes per
+ * site: an N = 20000 grid needs about 1.65 GB.
+ */
+public class CompactPercolation implements PercolationSystem {
+    private static final int TOP = 1;
+    private static final int BOTTOM = 2;
+    private static final int SPANNING = TOP | BOTTOM;
+
+    private int colSize;
+    private UnionFind uf;
+    private long[] open;
+    private int[] neighbors;
+    private int openSites;
+    private boolean percolates;
+
+    /** A constructor that creates a N * N CompactPercolation instance.
+     *
+     * @param N
+     */
+    public CompactPercolation(int N) {
+        if (N <= 0) {
+            throw new java.lang.IllegalArgumentException("The grid's "
+                    + "dimensions must be grater than 0.");
+        }
+        long sites = (long) N * N;
+        if (sites > Integer.MAX_VALUE) {
+            throw new java.lang.IllegalArgumentException("A " + N + " by " + N
+                    + " grid has too many sites for a CompactPercolation.");
+        }
+        colSize = N;
+        uf = new UnionFind((int) sites);
+        open = new long[(int) ((sites + 63) >>> 6)];
+        neighbors = new int[4];
+        openSites = 0;
+        percolates = false;
+    }
+
+    private int validate(int row, int col) {
+        if (row < 0 || row >= colSize || col < 0 || col >= colSize) {
+            throw new java.lang.IndexOutOfBoundsException("Row " + row + " and column " + col
+                    + " are not between 0 and " + (colSize - 1));
+        }
+        return row * colSize + col;
+    }
+
+    private boolean bit(int index) {
+        return (open[index >>> 6] & (1L << index)) != 0;
+    }
+
+    /** A method that opens a Site if it is not open already.
+     *
+     * @param row
+     * @param col
+     */
+    @Override
+    public void open(int row, int col) {
+        int index = validate(row, col);
+        if (bit(index)) {
+            return;
+        }
+        open[index >>> 6] |= 1L << index;
+        openSites += 1;
+        int n = 0;
+        if (row > 0 && bit(index - colSize)) {
+            neighbors[n] = index - colSize;
+            n += 1;
+        }
+        if (row < colSize - 1 && bit(index + colSize)) {
+            neighbors[n] = index + colSize;
+            n += 1;
+        }
+        if (col > 0 && bit(index - 1)) {
+            neighbors[n] = index - 1;
+            n += 1;
+        }
+        if (col < colSize - 1 && bit(index + 1)) {
+            neighbors[n] = index + 1;
+            n += 1;
+        }
+        int f = 0;
+        if (row == 0) {
+            f |= TOP;
+        }
+        if (row == colSize - 1) {
+            f |= BOTTOM;
+        }
+        int root = uf.unionAll(index, neighbors, n);
+        if (uf.addTags(root, f) == SPANNING) {
+            percolates = true;
+        }
+    }
+
+    /** A method that checks if a Site is open.
+     *
+     * @param row
+     * @param col
+     * @return boolean
+     */
+    @Override
+    public boolean isOpen(int row, int col) {
+        return bit(validate(row, col));
+    }
+
+    /** A method that checks if a Site is full.
+     *
+     * @param row
+     * @param col
+     * @return boolean
+     */
+    @Override
+    public boolean isFull(int row, int col) {
+        int index = validate(row, col);
+        return bit(index) && (uf.tags(uf.find(index)) & TOP) != 0;
+    }
+
+    /** A method that returns the number of open Sites in this CompactPercolation instance.
+     *
+     * @return int
+     */
+    @Override
+    public int numberOfOpenSites() {
+        return openSites;
+    }
+
+    /** A method that checks if this CompactPercolation instance percolates.
+     *
+     * @return boolean
+     */
+    @Override
+    public boolean percolates() {
+        return percolates;
+    }
+}
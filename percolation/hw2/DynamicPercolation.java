@@ -0,0 +1,363 @@
+package hw2;
+
+import java.util.Arrays;
+
+/** A Percolation system whose sites can be closed again, for reliability
+ * simulations where sites fail. Operations are recorded as a batch of open,
+ * close and query events and answered offline by divide and conquer over
+ * time: every connection between two open neighbors (or between an open
+ * top-row site and a virtual top site) is alive over an interval of events,
+ * the intervals are stored in a segment tree over time, and a depth-first walk
+ * of the tree unions the connections of each node on the way down and rolls
+ * them back on the way up. A batch of E events costs O(E log E log N).
+ */
+public class DynamicPercolation {
+    private int colSize;
+    private int top;
+    private int[] openedAt;
+    private int openSites;
+
+    private int events;
+    private int[] queryTime;
+    private int[] querySite;
+    private boolean[] answers;
+    private int queries;
+
+    private int[] edgeFrom;
+    private int[] edgeTo;
+    private int[] edgeStart;
+    private int[] edgeEnd;
+    private int edges;
+
+    private int[] parent;
+    private byte[] rank;
+    private boolean[] reachesBottom;
+    private long[] history;
+    private int historySize;
+
+    /** Creates an empty batch of events on an N-by-N grid with all sites
+     * blocked.
+     *
+     * @param N
+     */
+    public DynamicPercolation(int N) {
+        if (N <= 0) {
+            throw new java.lang.IllegalArgumentException("The grid's "
+                    + "dimensions must be grater than 0.");
+        }
+        long sites = (long) N * N;
+        // the union-find arrays hold every site plus the virtual top
+        if (sites >= Integer.MAX_VALUE) {
+            throw new java.lang.IllegalArgumentException("A " + N + " by " + N
+                    + " grid has too many sites for a DynamicPercolation.");
+        }
+        colSize = N;
+        top = (int) sites;
+        openedAt = new int[top];
+        Arrays.fill(openedAt, -1);
+        queryTime = new int[16];
+        querySite = new int[16];
+        edgeFrom = new int[16];
+        edgeTo = new int[16];
+        edgeStart = new int[16];
+        edgeEnd = new int[16];
+    }
+
+    private int validate(int row, int col) {
+        if (row < 0 || row >= colSize || col < 0 || col >= colSize) {
+            throw new java.lang.IndexOutOfBoundsException("Row " + row + " and column " + col
+                    + " are not between 0 and " + (colSize - 1));
+        }
+        return row * colSize + col;
+    }
+
+    /** Opens the site (row, col) if it is not open already.
+     *
+     * @param row
+     * @param col
+     */
+    public void open(int row, int col) {
+        int index = validate(row, col);
+        if (openedAt[index] < 0) {
+            openedAt[index] = events;
+            openSites += 1;
+        }
+        events += 1;
+    }
+
+    /** Closes the site (row, col) if it is open.
+     *
+     * @param row
+     * @param col
+     */
+    public void close(int row, int col) {
+        int index = validate(row, col);
+        if (openedAt[index] >= 0) {
+            retire(index, row, col);
+        }
+        events += 1;
+    }
+
+    /** Ends the lifetime of every connection of an open site at the current
+     * event. Connections to neighbors that are still open are recorded here,
+     * so each connection is recorded exactly once, by whichever end closes
+     * first.
+     */
+    private void retire(int index, int row, int col) {
+        if (row == 0) {
+            addEdge(index, top, openedAt[index]);
+        }
+        if (row > 0) {
+            addNeighborEdge(index, index - colSize);
+        }
+        if (row < colSize - 1) {
+            addNeighborEdge(index, index + colSize);
+        }
+        if (col > 0) {
+            addNeighborEdge(index, index - 1);
+        }
+        if (col < colSize - 1) {
+            addNeighborEdge(index, index + 1);
+        }
+        openedAt[index] = -1;
+        openSites -= 1;
+    }
+
+    private void addNeighborEdge(int index, int neighbor) {
+        if (openedAt[neighbor] >= 0) {
+            addEdge(index, neighbor, Math.max(openedAt[index], openedAt[neighbor]));
+        }
+    }
+
+    private void addEdge(int from, int to, int start) {
+        if (start >= events) {
+            return;
+        }
+        if (edges == edgeFrom.length) {
+            edgeFrom = Arrays.copyOf(edgeFrom, 2 * edges);
+            edgeTo = Arrays.copyOf(edgeTo, 2 * edges);
+            edgeStart = Arrays.copyOf(edgeStart, 2 * edges);
+            edgeEnd = Arrays.copyOf(edgeEnd, 2 * edges);
+        }
+        edgeFrom[edges] = from;
+        edgeTo[edges] = to;
+        edgeStart[edges] = start;
+        edgeEnd[edges] = events;
+        edges += 1;
+    }
+
+    private int addQuery(int site) {
+        if (queries == queryTime.length) {
+            queryTime = Arrays.copyOf(queryTime, 2 * queries);
+            querySite = Arrays.copyOf(querySite, 2 * queries);
+        }
+        queryTime[queries] = events;
+        querySite[queries] = site;
+        queries += 1;
+        events += 1;
+        return queries - 1;
+    }
+
+    /** Records a query for whether the system percolates at this point of the
+     * batch and returns its id, an index into the array returned by solve.
+     *
+     * @return int
+     */
+    public int queryPercolates() {
+        return addQuery(top);
+    }
+
+    /** Records a query for whether the site (row, col) is full at this point
+     * of the batch and returns its id, an index into the array returned by
+     * solve.
+     *
+     * @param row
+     * @param col
+     * @return int
+     */
+    public int queryFull(int row, int col) {
+        int index = validate(row, col);
+        if (openedAt[index] < 0) {
+            // A blocked site is never full, whatever the rest of the grid does.
+            return addQuery(-1);
+        }
+        return addQuery(index);
+    }
+
+    /** Returns the number of sites that are open at the end of the batch.
+     *
+     * @return int
+     */
+    public int numberOfOpenSites() {
+        return openSites;
+    }
+
+    /** Answers every query recorded so far. Entry i of the result answers
+     * the query whose id is i. More events may be added afterwards, and
+     * solve may be called again.
+     *
+     * @return boolean[]
+     */
+    public boolean[] solve() {
+        int savedEdges = edges;
+        int[] savedOpenedAt = openedAt.clone();
+        int savedOpenSites = openSites;
+        for (int index = 0; index < openedAt.length; index += 1) {
+            if (openedAt[index] >= 0) {
+                retire(index, index / colSize, index % colSize);
+            }
+        }
+
+        answers = new boolean[queries];
+        if (events > 0) {
+            int size = 1;
+            while (size < events) {
+                size *= 2;
+            }
+            int[] start = new int[2 * size + 1];
+            for (int e = 0; e < edges; e += 1) {
+                count(1, 0, size, edgeStart[e], edgeEnd[e], start);
+            }
+            for (int node = 1; node <= 2 * size; node += 1) {
+                start[node] += start[node - 1];
+            }
+            int[] bucket = new int[start[2 * size]];
+            int[] fill = Arrays.copyOf(start, 2 * size);
+            for (int e = 0; e < edges; e += 1) {
+                place(1, 0, size, e, fill, bucket);
+            }
+            parent = new int[top + 1];
+            rank = new byte[top + 1];
+            reachesBottom = new boolean[top + 1];
+            for (int i = 0; i <= top; i += 1) {
+                parent[i] = i;
+            }
+            Arrays.fill(reachesBottom, top - colSize, top, true);
+            history = new long[top + 1];
+            historySize = 0;
+            int[] queryAt = new int[size];
+            Arrays.fill(queryAt, -1);
+            for (int q = 0; q < queries; q += 1) {
+                queryAt[queryTime[q]] = q;
+            }
+            walk(1, 0, size, start, bucket, queryAt);
+            parent = null;
+            rank = null;
+            reachesBottom = null;
+            history = null;
+        }
+
+        edges = savedEdges;
+        openedAt = savedOpenedAt;
+        openSites = savedOpenSites;
+        return answers.clone();
+    }
+
+    /** Counts, per segment tree node, the edges whose interval [lo, hi)
+     * covers the node's whole range [nodeLo, nodeHi). After a prefix sum over
+     * start, the edges of node are bucket[start[node - 1]] up to, but not
+     * including, bucket[start[node]].
+     */
+    private void count(int node, int nodeLo, int nodeHi, int lo, int hi, int[] start) {
+        if (hi <= nodeLo || nodeHi <= lo) {
+            return;
+        }
+        if (lo <= nodeLo && nodeHi <= hi) {
+            start[node] += 1;
+            return;
+        }
+        int mid = (nodeLo + nodeHi) >>> 1;
+        count(2 * node, nodeLo, mid, lo, hi, start);
+        count(2 * node + 1, mid, nodeHi, lo, hi, start);
+    }
+
+    private void place(int node, int nodeLo, int nodeHi, int e, int[] fill, int[] bucket) {
+        if (edgeEnd[e] <= nodeLo || nodeHi <= edgeStart[e]) {
+            return;
+        }
+        if (edgeStart[e] <= nodeLo && nodeHi <= edgeEnd[e]) {
+            bucket[fill[node - 1]] = e;
+            fill[node - 1] += 1;
+            return;
+        }
+        int mid = (nodeLo + nodeHi) >>> 1;
+        place(2 * node, nodeLo, mid, e, fill, bucket);
+        place(2 * node + 1, mid, nodeHi, e, fill, bucket);
+    }
+
+    private void walk(int node, int nodeLo, int nodeHi, int[] start, int[] bucket,
+                      int[] queryAt) {
+        if (nodeLo >= events) {
+            return;
+        }
+        int mark = historySize;
+        for (int i = start[node - 1]; i < start[node]; i += 1) {
+            union(edgeFrom[bucket[i]], edgeTo[bucket[i]]);
+        }
+        if (nodeHi - nodeLo == 1) {
+            int q = queryAt[nodeLo];
+            if (q >= 0 && querySite[q] == top) {
+                answers[q] = reachesBottom[find(top)];
+            } else if (q >= 0 && querySite[q] >= 0) {
+                answers[q] = find(querySite[q]) == find(top);
+            }
+        } else {
+            int mid = (nodeLo + nodeHi) >>> 1;
+            walk(2 * node, nodeLo, mid, start, bucket, queryAt);
+            walk(2 * node + 1, mid, nodeHi, start, bucket, queryAt);
+        }
+        rollback(mark);
+    }
+
+    private int find(int p) {
+        while (parent[p] != p) {
+            p = parent[p];
+        }
+        return p;
+    }
+
+    /** Links by rank without path compression, so every union can be undone
+     * by resetting one parent pointer, at most one rank and at most one
+     * bottom flag. There is no virtual bottom site: a root knows whether its
+     * component reaches the bottom row, which keeps isFull free of backwash.
+     */
+    private void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) {
+            return;
+        }
+        if (rank[rootP] < rank[rootQ]) {
+            int tmp = rootP;
+            rootP = rootQ;
+            rootQ = tmp;
+        }
+        parent[rootQ] = rootP;
+        long entry = (long) rootQ << 2;
+        if (rank[rootP] == rank[rootQ]) {
+            rank[rootP] += 1;
+            entry |= 1;
+        }
+        if (reachesBottom[rootQ] && !reachesBottom[rootP]) {
+            reachesBottom[rootP] = true;
+            entry |= 2;
+        }
+        history[historySize] = entry;
+        historySize += 1;
+    }
+
+    private void rollback(int mark) {
+        while (historySize > mark) {
+            historySize -= 1;
+            int rootQ = (int) (history[historySize] >>> 2);
+            int rootP = parent[rootQ];
+            if ((history[historySize] & 1) != 0) {
+                rank[rootP] -= 1;
+            }
+            if ((history[historySize] & 2) != 0) {
+                reachesBottom[rootP] = false;
+            }
+            parent[rootQ] = rootQ;
+        }
+    }
+}
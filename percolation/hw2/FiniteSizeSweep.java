@@ -0,0 +1,269 @@
+/******************************************************************************
+ *  Compilation:  javac FiniteSizeSweep.java
+ *  Execution:    java hw2.FiniteSizeSweep trials checkpoint.bin out.csv N1 N2 ...
+ *  Dependencies: PercolationStats.java RunningStats.java
+ *
+ *  Estimates the percolation threshold for several grid sizes at once, for
+ *  finite-size scaling. All (N, trial) work shares one thread pool and the
+ *  largest grids are scheduled first. The running statistics of every N are
+ *  checkpointed to a small binary file, so a restarted sweep with the same
+ *  arguments only runs the trials that are still missing. The result is
+ *  one CSV line of mean, stddev and 95% confidence interval per N.
+ *
+ ******************************************************************************/
+package hw2;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+public class FiniteSizeSweep {
+    private static final int MAGIC = 0x50535750;
+    private static final int VERSION = 1;
+    /** Trials run back to back by one task before merging into the totals. */
+    private static final int CHUNK_SIZE = 8;
+    private static final long CHECKPOINT_INTERVAL_MS = 10_000;
+
+    private int[] sizes;
+    private int trials;
+    private PercolationFactory pf;
+    private PercolationStats.Sampling sampling;
+    private long seed;
+    private int threads;
+    private File checkpoint;
+    private TreeMap<Integer, RunningStats> stats;
+    private int generation;
+    private long lastCheckpoint;
+
+    /** Creates a sweep that runs trials experiments for each grid size in
+     * sizes, checkpointing to the given file.
+     *
+     * @param sizes
+     * @param trials
+     * @param pf
+     * @param sampling
+     * @param seed
+     * @param threads
+     * @param checkpoint
+     */
+    public FiniteSizeSweep(int[] sizes, int trials, PercolationFactory pf,
+                           PercolationStats.Sampling sampling, long seed, int threads,
+                           File checkpoint) {
+        if (sizes.length == 0 || trials <= 0 || threads <= 0) {
+            throw new java.lang.IllegalArgumentException("Arguments must be greater than 0.");
+        }
+        this.sizes = Arrays.stream(sizes).distinct().sorted().toArray();
+        this.trials = trials;
+        this.pf = pf;
+        this.sampling = sampling;
+        this.seed = seed;
+        this.threads = threads;
+        this.checkpoint = checkpoint;
+        stats = new TreeMap<>();
+        for (int N : this.sizes) {
+            if (N <= 0) {
+                throw new java.lang.IllegalArgumentException("Arguments must be greater than 0.");
+            }
+            stats.put(N, new RunningStats());
+        }
+        generation = 0;
+    }
+
+    /** Loads the checkpoint if there is one, then runs every missing trial,
+     * largest grids first, checkpointing along the way and once at the end.
+     */
+    public void run() {
+        load();
+        List<int[]> work = new ArrayList<>();
+        for (int i = sizes.length - 1; i >= 0; i -= 1) {
+            int N = sizes[i];
+            long missing = trials - stats.get(N).count();
+            for (int chunk = 0; missing > 0; chunk += 1) {
+                int size = (int) Math.min(CHUNK_SIZE, missing);
+                work.add(new int[] {N, chunk, size});
+                missing -= size;
+            }
+        }
+        // Streams of a resumed run are keyed by a new generation, so they never
+        // repeat the trials that are already in the checkpoint.
+        int gen = generation + 1;
+        lastCheckpoint = System.currentTimeMillis();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int[] w : work) {
+                futures.add(pool.submit(() -> runChunk(w[0], w[1], w[2], gen)));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new java.lang.IllegalStateException("The sweep was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new java.lang.IllegalStateException("A trial failed.", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        synchronized (this) {
+            generation = gen;
+            save();
+        }
+    }
+
+    private void runChunk(int N, int chunk, int size, int gen) {
+        PercolationStats.Trial trial = PercolationStats.thresholdTrial(N, pf, sampling);
+        SplittableRandom rng = new SplittableRandom(mix(mix(mix(seed ^ gen) ^ N) ^ chunk));
+        RunningStats partial = new RunningStats();
+        for (int i = 0; i < size; i += 1) {
+            partial.add(trial.run(rng.split()));
+        }
+        synchronized (this) {
+            stats.get(N).merge(partial);
+            long now = System.currentTimeMillis();
+            if (now - lastCheckpoint >= CHECKPOINT_INTERVAL_MS) {
+                // Record the generation as started, so chunks saved here are
+                // never redrawn with the same streams after a crash.
+                generation = gen;
+                save();
+                lastCheckpoint = now;
+            }
+        }
+    }
+
+    /** SplitMix64's finalizer, used to derive independent stream seeds. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private void load() {
+        if (checkpoint == null || !checkpoint.exists()) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(checkpoint)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new java.lang.IllegalArgumentException(checkpoint
+                        + " is not a sweep checkpoint.");
+            }
+            if (in.readLong() != seed) {
+                throw new java.lang.IllegalArgumentException(checkpoint
+                        + " was written by a sweep with a different seed.");
+            }
+            generation = in.readInt();
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i += 1) {
+                int N = in.readInt();
+                RunningStats saved = new RunningStats(in.readLong(), in.readDouble(),
+                        in.readDouble());
+                if (stats.containsKey(N)) {
+                    stats.put(N, saved);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + checkpoint, e);
+        }
+    }
+
+    /** Writes the checkpoint to a temporary file and moves it into place, so
+     * a crash while saving leaves the previous checkpoint intact.
+     */
+    private void save() {
+        if (checkpoint == null) {
+            return;
+        }
+        File tmp = new File(checkpoint.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(seed);
+            out.writeInt(generation);
+            out.writeInt(stats.size());
+            for (int N : stats.keySet()) {
+                RunningStats s = stats.get(N);
+                out.writeInt(N);
+                out.writeLong(s.count());
+                out.writeDouble(s.mean());
+                out.writeDouble(s.m2());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + tmp, e);
+        }
+        try {
+            Files.move(tmp.toPath(), checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replace " + checkpoint, e);
+        }
+    }
+
+    /** Returns the statistics gathered so far for grid size N.
+     *
+     * @param N
+     * @return RunningStats
+     */
+    public synchronized RunningStats stats(int N) {
+        return stats.get(N);
+    }
+
+    /** Writes one line per grid size with the number of trials, mean,
+     * standard deviation and 95% confidence interval of the threshold.
+     *
+     * @param csv
+     */
+    public synchronized void writeCsv(File csv) {
+        try (PrintWriter out = new PrintWriter(csv)) {
+            out.println("N,trials,mean,stddev,confidenceLow,confidenceHigh");
+            for (int N : stats.keySet()) {
+                RunningStats s = stats.get(N);
+                double halfWidth = PercolationStats.Z_95 * s.stddev() / Math.sqrt(s.count());
+                out.println(N + "," + s.count() + "," + s.mean() + "," + s.stddev() + ","
+                        + (s.mean() - halfWidth) + "," + (s.mean() + halfWidth));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + csv, e);
+        }
+    }
+
+    public static void main(String[] args) {
+        if (args.length < 4) {
+            System.out.println("Usage: java hw2.FiniteSizeSweep trials checkpoint.bin out.csv"
+                    + " N1 N2 ...");
+            return;
+        }
+        int trials = Integer.parseInt(args[0]);
+        File checkpoint = new File(args[1]);
+        File csv = new File(args[2]);
+        int[] sizes = new int[args.length - 3];
+        for (int i = 0; i < sizes.length; i += 1) {
+            sizes[i] = Integer.parseInt(args[i + 3]);
+        }
+        FiniteSizeSweep sweep = new FiniteSizeSweep(sizes, trials,
+                new PercolationFactory(PercolationFactory.Type.UNION_FIND),
+                PercolationStats.Sampling.SWEEP, 0x5EED, Runtime.getRuntime().availableProcessors(),
+                checkpoint);
+        sweep.run();
+        sweep.writeCsv(csv);
+    }
+}
@@ -1,7 +1,7 @@
 /******************************************************************************
  *  Compilation:  javac InteractivePercolationVisualizer.java
  *  Execution:    java InteractivePercolationVisualizer N
- *  Dependencies: PercolationVisualizer.java Percolation.java
+ *  Dependencies: PercolationVisualizer.java Percolation.java SiteRaster.java
  *
  *  This program takes the grid size N as a command-line argument.
  *  Then, the user repeatedly clicks sites to open with the mouse.
@@ -29,7 +29,8 @@ public class InteractivePercolationVisualizer {
         // repeatedly open site specified my mouse click and draw resulting system
         StdOut.println(N);
 
-        Percolation perc = new Percolation(N);
+        TrackingPercolation perc = new TrackingPercolation(new Percolation(N), N);
+        SiteRaster raster = new SiteRaster(N);
         PercolationVisualizer.draw(perc, N);
         StdDraw.show(DELAY);
         while (true) {
@@ -53,8 +54,9 @@ public class InteractivePercolationVisualizer {
                     perc.open(i, j);
                 }
 
-                // draw N-by-N percolation system
-                PercolationVisualizer.draw(perc, N);
+                // redraw the sites of the N-by-N percolation system that changed
+                raster.update(perc);
+                PercolationVisualizer.drawChanges(raster, perc, N);
             }
             StdDraw.show(DELAY);
         }
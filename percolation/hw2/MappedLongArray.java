@@ -0,0 +1,150 @@
+package hw2;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/** A zero-initialized array of longs that lives outside the Java heap, in a
+ * memory-mapped temporary file. The file is mapped in chunks of at most
+ * 2^27 longs (1 GB), so the array can be far longer than Integer.MAX_VALUE.
+ * The file is unlinked as soon as it is mapped, and close unmaps it so the
+ * space goes back to the file system right away rather than whenever the
+ * garbage collector gets to the buffers, which put almost no pressure on the
+ * heap. Unmapping goes through sun.misc.Unsafe.invokeCleaner; on a JVM
+ * without it, close only drops the buffers and leaves them to the collector.
+ */
+public class MappedLongArray implements AutoCloseable {
+    private static final int CHUNK_SHIFT = 27;
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> c = Class.forName("sun.misc.Unsafe");
+            Field f = c.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            unsafe = f.get(null);
+            invokeCleaner = c.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private MappedByteBuffer[] mappings;
+    private LongBuffer[] chunks;
+    private long length;
+
+    /** Maps a new array of the given length into a temporary file in dir,
+     * or in the default temporary directory if dir is null.
+     *
+     * @param length
+     * @param dir
+     */
+    public MappedLongArray(long length, File dir) {
+        if (length < 0) {
+            throw new java.lang.IllegalArgumentException("Length must not be negative.");
+        }
+        this.length = length;
+        int n = (int) ((length + CHUNK_MASK) >>> CHUNK_SHIFT);
+        mappings = new MappedByteBuffer[n];
+        chunks = new LongBuffer[n];
+        File file = null;
+        try {
+            file = File.createTempFile("percolation", ".bin", dir);
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(length * Long.BYTES);
+                FileChannel channel = raf.getChannel();
+                for (int i = 0; i < n; i += 1) {
+                    long start = (long) i << CHUNK_SHIFT;
+                    long size = Math.min(CHUNK_MASK + 1, length - start);
+                    mappings[i] = channel.map(FileChannel.MapMode.READ_WRITE,
+                            start * Long.BYTES, size * Long.BYTES);
+                    chunks[i] = mappings[i].asLongBuffer();
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw new java.io.UncheckedIOException("Could not map " + length
+                    + " longs to a temporary file.", e);
+        } finally {
+            if (file != null && !file.delete()) {
+                file.deleteOnExit();
+            }
+        }
+    }
+
+    /** Returns the element at index i.
+     *
+     * @param i
+     * @return long
+     */
+    public long get(long i) {
+        return chunks()[(int) (i >>> CHUNK_SHIFT)].get((int) (i & CHUNK_MASK));
+    }
+
+    /** Sets the element at index i to value.
+     *
+     * @param i
+     * @param value
+     */
+    public void set(long i, long value) {
+        chunks()[(int) (i >>> CHUNK_SHIFT)].put((int) (i & CHUNK_MASK), value);
+    }
+
+    /** Returns the chunks, throwing IllegalStateException once the array is
+     * closed so nothing touches unmapped memory.
+     */
+    private LongBuffer[] chunks() {
+        LongBuffer[] c = chunks;
+        if (c == null) {
+            throw new IllegalStateException("This MappedLongArray is closed.");
+        }
+        return c;
+    }
+
+    /** Returns the number of elements.
+     *
+     * @return long
+     */
+    public long length() {
+        return length;
+    }
+
+    /** Unmaps the array. Later calls to get and set throw an
+     * IllegalStateException. Closing twice does nothing.
+     */
+    @Override
+    public void close() {
+        MappedByteBuffer[] m = mappings;
+        if (m == null) {
+            return;
+        }
+        mappings = null;
+        chunks = null;
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        for (MappedByteBuffer buffer : m) {
+            if (buffer == null) {
+                continue;
+            }
+            try {
+                INVOKE_CLEANER.invoke(UNSAFE, buffer);
+            } catch (ReflectiveOperationException e) {
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package hw2;
+
+import java.io.File;
+
+/** A Percolation system whose state lives off-heap in memory-mapped
+ * temporary files, for grids with billions of sites. Open sites are a
+ * bitset and the union-find uses the same packed encoding as UnionFind
+ * (parent + 1 for non-roots, minus rank and tags for roots) widened to
+ * longs. Sites are laid out row by row, so opening a site touches its own
+ * page and at most the pages one row above and below, and linking by rank
+ * keeps find paths, and with them random page faults, short. The files'
+ * disk space is held until close is called.
+ */
+public class MappedPercolation implements PercolationSystem {
+    private static final int TAG_BITS = 2;
+    private static final long TOP = 1;
+    private static final long BOTTOM = 2;
+    private static final long SPANNING = TOP | BOTTOM;
+
+    private int colSize;
+    private MappedLongArray open;
+    private MappedLongArray nodes;
+    private long openSites;
+    private boolean percolates;
+
+    /** A constructor that creates a N * N MappedPercolation instance backed by
+     * files in the default temporary directory.
+     *
+     * @param N
+     */
+    public MappedPercolation(int N) {
+        this(N, null);
+    }
+
+    /** A constructor that creates a N * N MappedPercolation instance backed by
+     * files in the given directory.
+     *
+     * @param N
+     * @param dir
+     */
+    public MappedPercolation(int N, File dir) {
+        if (N <= 0) {
+            throw new java.lang.IllegalArgumentException("The grid's "
+                    + "dimensions must be grater than 0.");
+        }
+        colSize = N;
+        long sites = (long) N * N;
+        open = new MappedLongArray((sites + 63) >>> 6, dir);
+        nodes = new MappedLongArray(sites, dir);
+        openSites = 0;
+        percolates = false;
+    }
+
+    private long validate(int row, int col) {
+        if (row < 0 || row >= colSize || col < 0 || col >= colSize) {
+            throw new java.lang.IndexOutOfBoundsException("Row " + row + " and column " + col
+                    + " are not between 0 and " + (colSize - 1));
+        }
+        return (long) row * colSize + col;
+    }
+
+    private boolean bit(long index) {
+        return (open.get(index >>> 6) & (1L << index)) != 0;
+    }
+
+    private long find(long p) {
+        long next = nodes.get(p);
+        while (next > 0) {
+            long grand = nodes.get(next - 1);
+            if (grand <= 0) {
+                return next - 1;
+            }
+            nodes.set(p, grand);
+            p = grand - 1;
+            next = nodes.get(p);
+        }
+        return p;
+    }
+
+    /** Links the component rooted at root with the one containing q and
+     * returns the new root, merging the top and bottom tags.
+     */
+    private long union(long root, long q) {
+        long other = find(q);
+        if (other == root) {
+            return root;
+        }
+        long rankRoot = -nodes.get(root) >>> TAG_BITS;
+        long rankOther = -nodes.get(other) >>> TAG_BITS;
+        long tags = (-nodes.get(root) | -nodes.get(other)) & SPANNING;
+        if (rankRoot < rankOther) {
+            long tmp = root;
+            root = other;
+            other = tmp;
+            rankRoot = rankOther;
+        } else if (rankRoot == rankOther) {
+            rankRoot += 1;
+        }
+        nodes.set(other, root + 1);
+        nodes.set(root, -((rankRoot << TAG_BITS) | tags));
+        return root;
+    }
+
+    private long tags(long root) {
+        return -nodes.get(root) & SPANNING;
+    }
+
+    /** A method that opens a Site if it is not open already.
+     *
+     * @param row
+     * @param col
+     */
+    @Override
+    public void open(int row, int col) {
+        long index = validate(row, col);
+        if (bit(index)) {
+            return;
+        }
+        open.set(index >>> 6, open.get(index >>> 6) | (1L << index));
+        openSites += 1;
+        long f = 0;
+        if (row == 0) {
+            f |= TOP;
+        }
+        if (row == colSize - 1) {
+            f |= BOTTOM;
+        }
+        nodes.set(index, -f);
+        long root = index;
+        if (row > 0 && bit(index - colSize)) {
+            root = union(root, index - colSize);
+        }
+        if (col > 0 && bit(index - 1)) {
+            root = union(root, index - 1);
+        }
+        if (col < colSize - 1 && bit(index + 1)) {
+            root = union(root, index + 1);
+        }
+        if (row < colSize - 1 && bit(index + colSize)) {
+            root = union(root, index + colSize);
+        }
+        if (tags(root) == SPANNING) {
+            percolates = true;
+        }
+    }
+
+    /** A method that checks if a Site is open.
+     *
+     * @param row
+     * @param col
+     * @return boolean
+     */
+    @Override
+    public boolean isOpen(int row, int col) {
+        return bit(validate(row, col));
+    }
+
+    /** A method that checks if a Site is full.
+     *
+     * @param row
+     * @param col
+     * @return boolean
+     */
+    @Override
+    public boolean isFull(int row, int col) {
+        long index = validate(row, col);
+        return bit(index) && (tags(find(index)) & TOP) != 0;
+    }
+
+    /** A method that returns the number of open Sites in this MappedPercolation
+     * instance. Throws ArithmeticException if there are more than
+     * Integer.MAX_VALUE of them; use openSiteCount for such grids.
+     *
+     * @return int
+     */
+    @Override
+    public int numberOfOpenSites() {
+        return Math.toIntExact(openSites);
+    }
+
+    /** A method that returns the number of open Sites as a long.
+     *
+     * @return long
+     */
+    @Override
+    public long openSiteCount() {
+        return openSites;
+    }
+
+    /** Unmaps the backing files, returning their disk space. The system must
+     * not be used afterwards.
+     */
+    @Override
+    public void close() {
+        open.close();
+        nodes.close();
+    }
+
+    /** A method that checks if this MappedPercolation instance percolates.
+     *
+     * @return boolean
+     */
+    @Override
+    public boolean percolates() {
+        return percolates;
+    }
+}
@@ -1,8 +1,9 @@
 package hw2;
 
 import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+import hw2.metrics.Metrics;
 
-public class Percolation {
+public class Percolation implements PercolationSystem {
     private WeightedQuickUnionUF grid;
     private WeightedQuickUnionUF backwash;
     private int top;
@@ -28,78 +29,32 @@ public class Percolation {
         backwash = new WeightedQuickUnionUF(top + 1);
         sites = new boolean[top + 1];
         openSites = 0;
-        connectTopBottom();
-    }
-
-    private void connectTopBottom() {
-        for (int i = 0; i < colSize; i += 1) {
-            backwash.union(i, top);
-        }
-        for (int j = top - colSize; j < top; j += 1) {
-            grid.union(j, bottom);
-        }
     }
 
     /** A method that converts and row and column index to an index usable
-     * for a WeightedQuickUnionUF instance.
+     * for a WeightedQuickUnionUF instance, after checking that they are in
+     * range for this Percolation instance. The exception message is only
+     * built when the check fails.
      *
      * @param row
      * @param col
      * @return int
      */
-    private int xyTo1D(int row, int col) {
-        return row * colSize + col;
-    }
-
-    /** A method that checks if a row and column index are in range for this Percolation instance.
-     *
-     * @param row
-     * @param col
-     */
-    private boolean inRange(int row, int col) {
-        if (row >= colSize || col >= colSize) {
-            return false;
-        }
-        return row >= 0 && col >= 0;
-    }
-
-    private int[] findNeighbors(int row, int col) {
-        int[] neighbors = {-1, -1, -1, -1};
-        int n = 0;
-        if (openSites <= 1) {
-            return neighbors;
-        }
-        if (inRange(row + 1, col) && sites[xyTo1D(row + 1, col)]) {
-            neighbors[n] = xyTo1D(row + 1, col);
-            n += 1;
+    private int validate(int row, int col) {
+        if (row < 0 || row >= colSize || col < 0 || col >= colSize) {
+            throw new java.lang.IndexOutOfBoundsException("Row " + row + " and column " + col
+                    + " are not between 0 and " + (colSize - 1));
         }
-        if (inRange(row - 1, col) && sites[xyTo1D(row - 1, col)]) {
-            neighbors[n] = xyTo1D(row - 1, col);
-            n += 1;
-        }
-        if (inRange(row, col + 1) && sites[xyTo1D(row, col + 1)]) {
-            neighbors[n] = xyTo1D(row, col + 1);
-            n += 1;
-        }
-        if (inRange(row, col - 1) && sites[xyTo1D(row, col - 1)]) {
-            neighbors[n] = xyTo1D(row, col - 1);
-        }
-        return neighbors;
+        return row * colSize + col;
     }
 
-    private void unionNeighbors(int row, int col) {
-        int[] neighbors = findNeighbors(row, col);
-        int index = xyTo1D(row, col);
-        for (int n : neighbors) {
-            if (n >= 0) {
-                grid.union(n, index);
-                backwash.union(n, index);
-                if (backwash.connected(top, n)) {
-                    grid.union(top, index);
-                    backwash.union(top, index);
-                }
-            }
+    /** Joins a newly opened site with one open neighbor in both union-finds. */
+    private void connect(int index, int neighbor) {
+        if (Metrics.ENABLED) {
+            Metrics.union();
         }
+        grid.union(neighbor, index);
+        backwash.union(neighbor, index);
     }
 
     /** A method that opens a Site if it is not open already.
@@ -107,17 +62,32 @@ public class Percolation {
      * @param row
      * @param col
      */
+    @Override
     public void open(int row, int col) {
-        int upperI = top - 1;
-        if (!inRange(row, col)) {
-            throw new java.lang.IndexOutOfBoundsException("Row" + row + "and column" + col
-                    + "are not between 0 and" + upperI);
+        int index = validate(row, col);
+        if (sites[index]) {
+            return;
+        }
+        sites[index] = true;
+        openSites += 1;
+        if (row == 0) {
+            grid.union(top, index);
+            backwash.union(top, index);
+        }
+        if (row == colSize - 1) {
+            grid.union(bottom, index);
+        }
+        if (row > 0 && sites[index - colSize]) {
+            connect(index, index - colSize);
         }
-        int index = xyTo1D(row, col);
-        if (!sites[index]) {
-            sites[index] = true;
-            openSites += 1;
-            unionNeighbors(row, col);
+        if (row < colSize - 1 && sites[index + colSize]) {
+            connect(index, index + colSize);
+        }
+        if (col > 0 && sites[index - 1]) {
+            connect(index, index - 1);
+        }
+        if (col < colSize - 1 && sites[index + 1]) {
+            connect(index, index + 1);
         }
     }
 
@@ -127,14 +97,9 @@ public class Percolation {
      * @param col
      * @return boolean
      */
+    @Override
     public boolean isOpen(int row, int col) {
-        int lastI = top - 1;
-        if (!inRange(row, col)) {
-            throw new java.lang.IndexOutOfBoundsException("Row" + row + "and column" + col
-                    + "are not between 0 and " + lastI);
-        }
-        int index = xyTo1D(row, col);
-        return sites[index];
+        return sites[validate(row, col)];
     }
 
     /** A method that checks if a Site is full.
@@ -143,23 +108,17 @@ public class Percolation {
      * @param col
      * @return boolean
      */
+    @Override
     public boolean isFull(int row, int col) {
-        int lastI = top - 1;
-        if (!inRange(row, col)) {
-            throw new java.lang.IndexOutOfBoundsException("Row" + row + "and column" + col
-                    + "are not between 0 and " + lastI);
-        }
-        int index = xyTo1D(row, col);
-        if (sites[index]) {
-            return backwash.connected(index, top);
-        }
-        return false;
+        int index = validate(row, col);
+        return sites[index] && backwash.connected(index, top);
     }
 
     /** A method that returns the number of open Sites in this Percolation instance.
      *
      * @return int
      */
+    @Override
     public int numberOfOpenSites() {
         return openSites;
     }
@@ -168,10 +127,8 @@ public class Percolation {
      *
      * @return boolean
      */
+    @Override
     public boolean percolates() {
-        if (colSize == 1) {
-            return openSites == 1;
-        }
         return grid.connected(top, bottom);
     }
 
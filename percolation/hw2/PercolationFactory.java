@@ -1,7 +1,61 @@
 package hw2;
 
 public class PercolationFactory {
+    /** The percolation systems this factory can make. */
+    public enum Type {
+        /** Percolation, with two WeightedQuickUnionUFs to avoid backwash. */
+        CLASSIC,
+        /** UnionFindPercolation, with one union-find and per-root top/bottom flags. */
+        UNION_FIND,
+        /** CompactPercolation, with a bitset of open sites and flags packed into the union-find. */
+        COMPACT,
+        /** MappedPercolation, with the same layout kept off-heap in memory-mapped temp files. */
+        MAPPED,
+        /** ClusterPercolation, with a tagged ClusterUnionFind that also keeps cluster statistics. */
+        CLUSTER
+    }
+
+    private Type type;
+
+    public PercolationFactory() {
+        this(Type.CLASSIC);
+    }
+
+    public PercolationFactory(Type type) {
+        this.type = type;
+    }
+
+    /** Returns whether the systems this factory makes implement
+     * ClusterStatistics, without making one.
+     *
+     * @return boolean
+     */
+    public boolean keepsClusterStatistics() {
+        return type == Type.CLUSTER;
+    }
+
     public Percolation make(int N) {
         return new Percolation(N);
     }
+
+    /** Makes an N-by-N system of this factory's type. Unlike make, which
+     * always returns the classic Percolation, this honors the type.
+     *
+     * @param N
+     * @return PercolationSystem
+     */
+    public PercolationSystem makeSystem(int N) {
+        switch (type) {
+            case UNION_FIND:
+                return new UnionFindPercolation(N);
+            case COMPACT:
+                return new CompactPercolation(N);
+            case MAPPED:
+                return new MappedPercolation(N);
+            case CLUSTER:
+                return new ClusterPercolation(N);
+            default:
+                return new Percolation(N);
+        }
+    }
 }
@@ -1,52 +1,354 @@
 package hw2;
 
-import edu.princeton.cs.introcs.StdRandom;
+import hw2.lattice.Lattice;
+import hw2.lattice.LatticePercolation;
+import hw2.metrics.Metrics;
 
-import edu.princeton.cs.introcs.StdStats;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
 
 public class PercolationStats {
-    private double[] pThresholds;
+    /** How each trial picks the next site to open. */
+    public enum Sampling {
+        /** Draws random sites in batches and skips the ones already open. */
+        REJECTION,
+        /** Opens sites in a lazily shuffled order, so every draw opens a new site. */
+        PERMUTATION,
+        /** Opens sites in a shuffled order in one union-find sweep that notes when
+         * top and bottom first meet, without calling percolates(). The sweep
+         * keeps its own union-find, so the PercolationFactory is not used. */
+        SWEEP
+    }
+
+    /** Trials scheduled at a time when running until a target precision. */
+    private static final int BATCH_SIZE = 64;
+    /** Standard normal quantile for a two-sided 95% confidence interval. */
+    static final double Z_95 = 1.96;
+    /** Random sites drawn at a time by a rejection trial. */
+    private static final int SAMPLE_BATCH = 1024;
+
+    private RunningStats stats;
 
     // perform T independent experiments on an N-by-N grid
     public PercolationStats(int N, int T, PercolationFactory pf) {
-        if (T <= 0 || N <= 0) {
+        this(N, T, pf, System.nanoTime(), Runtime.getRuntime().availableProcessors());
+    }
+
+    /** Performs T independent experiments on an N-by-N grid spread over the
+     * given number of worker threads. Every trial draws from its own stream
+     * split off a generator seeded with seed, so the results only depend on
+     * the seed and not on the number of threads.
+     *
+     * @param N
+     * @param T
+     * @param pf
+     * @param seed
+     * @param threads
+     */
+    public PercolationStats(int N, int T, PercolationFactory pf, long seed, int threads) {
+        this(N, T, pf, seed, threads, Sampling.REJECTION);
+    }
+
+    /** Performs T independent experiments like the constructor above, picking
+     * sites to open with the given sampling mode.
+     *
+     * @param N
+     * @param T
+     * @param pf
+     * @param seed
+     * @param threads
+     * @param sampling
+     */
+    public PercolationStats(int N, int T, PercolationFactory pf, long seed, int threads,
+                            Sampling sampling) {
+        this(T, thresholdTrial(N, pf, sampling), seed, threads);
+    }
+
+    private PercolationStats(int T, Trial trial, long seed, int threads) {
+        if (T <= 0 || threads <= 0) {
+            throw new java.lang.IllegalArgumentException("Arguments must be greater than 0.");
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            stats = runTrials(pool, T, trial, new SplittableRandom(seed));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private PercolationStats(RunningStats stats) {
+        this.stats = stats;
+    }
+
+    /** Keeps running experiments on an N-by-N grid, in batches of BATCH_SIZE
+     * spread over the given number of threads, until the 95% confidence
+     * interval is at most halfWidth on either side of the mean, i.e. until
+     * confidenceHigh() - confidenceLow() is at most 2 * halfWidth, or until
+     * maxTrials trials have run, whichever comes first. When the cap is hit
+     * the interval is wider than asked for, which callers can check with
+     * confidenceLow() and confidenceHigh(). Only the running mean and
+     * variance are kept, so memory does not grow with the number of trials.
+     * Batch b draws from the b-th stream split off the seed, so the trial
+     * count and results are reproducible from the seed.
+     *
+     * @param N
+     * @param halfWidth
+     * @param maxTrials
+     * @param pf
+     * @param seed
+     * @param threads
+     * @param sampling
+     * @return PercolationStats
+     */
+    public static PercolationStats untilHalfWidth(int N, double halfWidth, int maxTrials,
+                                                  PercolationFactory pf, long seed, int threads,
+                                                  Sampling sampling) {
+        if (threads <= 0 || maxTrials <= 0 || !(halfWidth > 0)) {
             throw new java.lang.IllegalArgumentException("Arguments must be greater than 0.");
         }
-        pThresholds = new double[T];
-        runTrials(N, T, pf);
+        Trial trial = thresholdTrial(N, pf, sampling);
+        SplittableRandom root = new SplittableRandom(seed);
+        RunningStats stats = new RunningStats();
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            do {
+                int batch = (int) Math.min(BATCH_SIZE, maxTrials - stats.count());
+                stats.merge(runTrials(pool, batch, trial, root.split()));
+            } while (stats.count() < maxTrials && !(halfWidth(stats) <= halfWidth));
+        } finally {
+            pool.shutdown();
+        }
+        return new PercolationStats(stats);
+    }
+
+    private static double halfWidth(RunningStats stats) {
+        return Z_95 * stats.stddev() / Math.sqrt(stats.count());
+    }
+
+    /** Estimates the probability that an N-by-N grid whose sites are each
+     * open with probability p percolates, from T configurations checked
+     * row by row with a StreamingPercolation in O(N) memory. mean() of the
+     * result is the fraction of configurations that percolated, and the
+     * confidence interval is the usual normal approximation.
+     *
+     * @param N
+     * @param T
+     * @param p
+     * @param seed
+     * @param threads
+     * @return PercolationStats
+     */
+    public static PercolationStats atDensity(int N, int T, double p, long seed, int threads) {
+        if (N <= 0) {
+            throw new java.lang.IllegalArgumentException("Arguments must be greater than 0.");
+        }
+        if (p < 0 || p > 1) {
+            throw new java.lang.IllegalArgumentException("The density must be between 0 and 1.");
+        }
+        return new PercolationStats(T, rng -> StreamingPercolation.percolates(N, p, rng) ? 1 : 0,
+                seed, threads);
+    }
+
+    /** Estimates the percolation threshold of any site or bond lattice from T
+     * experiments that open its elements in random order, on the same
+     * seeded fork-join machinery as the grid constructors. The lattice is
+     * shared by all threads, which is safe since lattices are immutable.
+     *
+     * @param lattice
+     * @param T
+     * @param seed
+     * @param threads
+     * @return PercolationStats
+     */
+    public static PercolationStats onLattice(Lattice lattice, int T, long seed, int threads) {
+        return new PercolationStats(T, rng -> LatticePercolation.threshold(lattice, rng),
+                seed, threads);
+    }
+
+    /** Runs T experiments on an N-by-N grid that open sites in random order
+     * until the system percolates, and aggregates the cluster statistics of
+     * each system at that moment: the spanning-cluster mass, the largest
+     * cluster, the number of clusters and the cluster-size histogram. The
+     * factory must make systems that implement ClusterStatistics, such as
+     * PercolationFactory.Type.CLUSTER. Like the
+     * constructors, the result only depends on the seed.
+     *
+     * @param N
+     * @param T
+     * @param pf
+     * @param seed
+     * @param threads
+     * @return ClusterStats
+     */
+    public static ClusterStats clustersAtThreshold(int N, int T, PercolationFactory pf,
+                                                   long seed, int threads) {
+        if (N <= 0 || T <= 0 || threads <= 0) {
+            throw new java.lang.IllegalArgumentException("Arguments must be greater than 0.");
+        }
+        if (!pf.keepsClusterStatistics()) {
+            throw new java.lang.IllegalArgumentException("The factory's systems do not keep "
+                    + "cluster statistics.");
+        }
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new TrialTask<>(rng -> clusterTrial(N, pf, rng), ClusterStats::merge,
+                    0, T, new SplittableRandom(seed)));
+        } finally {
+            pool.shutdown();
+        }
     }
 
-    private void runTrials(int N, int T, PercolationFactory pf) {
-        for (int i = 0; i < T; i += 1) {
-            Percolation p = pf.make(N);
+    private static ClusterStats clusterTrial(int N, PercolationFactory pf, SplittableRandom rng) {
+        try (ClusterStatistics p = (ClusterStatistics) pf.makeSystem(N)) {
+            SitePermutation sites = new SitePermutation(N, rng);
             while (!p.percolates()) {
-                int row = StdRandom.uniform(N);
-                int col = StdRandom.uniform(N);
-                if (!p.isOpen(row, col)) {
-                    p.open(row, col);
+                int site = sites.next();
+                p.open(site / N, site % N);
+            }
+            ClusterStats stats = new ClusterStats();
+            stats.add(p, N);
+            return stats;
+        }
+    }
+
+    /** A single experiment that returns one sample drawn with the given generator. */
+    interface Trial {
+        double run(SplittableRandom rng);
+    }
+
+    static Trial thresholdTrial(int N, PercolationFactory pf, Sampling sampling) {
+        if (N <= 0) {
+            throw new java.lang.IllegalArgumentException("Arguments must be greater than 0.");
+        }
+        Trial trial;
+        if (sampling == Sampling.PERMUTATION) {
+            trial = rng -> permutationTrial(N, pf, rng);
+        } else if (sampling == Sampling.SWEEP) {
+            trial = rng -> sweepTrial(N, rng);
+        } else {
+            trial = rng -> rejectionTrial(N, pf, rng);
+        }
+        if (!Metrics.ENABLED) {
+            return trial;
+        }
+        return rng -> {
+            Metrics.startTrial();
+            double threshold = trial.run(rng);
+            Metrics.endTrial(N, Math.round(threshold * N * N));
+            return threshold;
+        };
+    }
+
+    private static RunningStats runTrials(ForkJoinPool pool, int T, Trial trial,
+                                          SplittableRandom rng) {
+        return pool.invoke(new TrialTask<>(r -> {
+            RunningStats s = new RunningStats();
+            s.add(trial.run(r));
+            return s;
+        }, RunningStats::merge, 0, T, rng));
+    }
+
+    private static double rejectionTrial(int N, PercolationFactory pf, SplittableRandom rng) {
+        try (PercolationSystem p = pf.makeSystem(N)) {
+            SiteSampler sampler = new SiteSampler((long) N * N, rng);
+            long[] batch = new long[SAMPLE_BATCH];
+            long rejected = 0;
+            while (true) {
+                sampler.fill(batch);
+                for (long site : batch) {
+                    int row = (int) (site / N);
+                    int col = (int) (site - (long) row * N);
+                    if (!p.isOpen(row, col)) {
+                        p.open(row, col);
+                        if (p.percolates()) {
+                            if (Metrics.ENABLED) {
+                                Metrics.rejected(rejected);
+                            }
+                            return p.openSiteCount() / (double) N / N;
+                        }
+                    } else if (Metrics.ENABLED) {
+                        rejected += 1;
+                    }
                 }
             }
-            pThresholds[i] = p.numberOfOpenSites() / (double) (N * N);
+        }
+    }
+
+    private static double permutationTrial(int N, PercolationFactory pf, SplittableRandom rng) {
+        try (PercolationSystem p = pf.makeSystem(N)) {
+            SitePermutation sites = new SitePermutation(N, rng);
+            while (!p.percolates()) {
+                int site = sites.next();
+                p.open(site / N, site % N);
+            }
+            return p.openSiteCount() / (double) N / N;
+        }
+    }
+
+    private static double sweepTrial(int N, SplittableRandom rng) {
+        int opened = ThresholdSweep.openingsToPercolate(N, new SitePermutation(N, rng));
+        return opened / (double) N / N;
+    }
+
+    /** Runs the trials in [lo, hi) by splitting the range in half until a
+     * single trial is left. The generator is split along this fixed tree and
+     * partial results are merged back up it as subtasks finish, so a given
+     * seed always reproduces the same statistics.
+     */
+    private static class TrialTask<S> extends RecursiveTask<S> {
+        private final Function<SplittableRandom, S> trial;
+        private final BinaryOperator<S> merge;
+        private final int lo;
+        private final int hi;
+        private final SplittableRandom rng;
+
+        TrialTask(Function<SplittableRandom, S> trial, BinaryOperator<S> merge, int lo, int hi,
+                  SplittableRandom rng) {
+            this.trial = trial;
+            this.merge = merge;
+            this.lo = lo;
+            this.hi = hi;
+            this.rng = rng;
+        }
+
+        @Override
+        protected S compute() {
+            if (hi - lo == 1) {
+                return trial.apply(rng);
+            }
+            int mid = (lo + hi) >>> 1;
+            TrialTask<S> right = new TrialTask<>(trial, merge, mid, hi, rng.split());
+            right.fork();
+            S left = new TrialTask<>(trial, merge, lo, mid, rng).compute();
+            return merge.apply(left, right.join());
         }
     }
 
     // sample mean of percolation threshold
     public double mean() {
-        return StdStats.mean(pThresholds);
+        return stats.mean();
     }
 
     // sample standard deviation of percolation threshold
     public double stddev() {
-        return StdStats.stddev(pThresholds);
+        return stats.stddev();
     }
 
     // low endpoint of 95% confidence interval
     public double confidenceLow() {
-        return mean() - 1.96 * stddev() / Math.sqrt(pThresholds.length);
+        return mean() - halfWidth(stats);
     }
 
     // high endpoint of 95% confidence interval
     public double confidenceHigh() {
-        return mean() + 1.96 * stddev() / Math.sqrt(pThresholds.length);
+        return mean() + halfWidth(stats);
+    }
+
+    // number of experiments the statistics are based on
+    public long trials() {
+        return stats.count();
     }
 }
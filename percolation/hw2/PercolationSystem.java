@@ -0,0 +1,37 @@
+package hw2;
+
+/** An N-by-N grid of sites that can be opened one at a time. A site is full
+ * if it is open and connected to an open site in the top row through open
+ * neighbors, and the system percolates if some site in the bottom row is full.
+ * Systems that hold resources outside the heap release them on close, so
+ * callers that make many systems should close each one when done with it.
+ */
+public interface PercolationSystem extends AutoCloseable {
+    /* Opens the site (row, col) if it is not open already. */
+    void open(int row, int col);
+    /* Returns true if the site (row, col) is open. */
+    boolean isOpen(int row, int col);
+    /* Returns true if the site (row, col) is full. */
+    boolean isFull(int row, int col);
+    /* Returns the number of open sites. */
+    int numberOfOpenSites();
+    /* Returns the number of open sites as a long, for grids with more than Integer.MAX_VALUE. */
+    default long openSiteCount() {
+        return numberOfOpenSites();
+    }
+    /* Returns true if the system percolates. */
+    boolean percolates();
+    /* Opens every site (rows[i], cols[i]). */
+    default void openAll(int[] rows, int[] cols) {
+        if (rows.length != cols.length) {
+            throw new java.lang.IllegalArgumentException("There must be as many rows as columns.");
+        }
+        for (int i = 0; i < rows.length; i += 1) {
+            open(rows[i], cols[i]);
+        }
+    }
+    /* Releases any resources held outside the heap. Does nothing by default. */
+    @Override
+    default void close() {
+    }
+}
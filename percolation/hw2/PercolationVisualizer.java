@@ -1,7 +1,7 @@
 /******************************************************************************
  *  Compilation:  javac PercolationVisualizer.java
  *  Execution:    java PercolationVisualizer input.txt
- *  Dependencies: Percolation.java
+ *  Dependencies: Percolation.java BinaryReplay.java
  *
  *  This program takes the name of a file as a command-line argument.
  *  From that file, it
@@ -12,11 +12,19 @@
  *
  *  After each site is opened, it draws full sites in light blue,
  *  open sites (that aren't full) in white, and blocked sites in black,
- *  with with site (0, 0) in the upper left-hand corner.
+ *  with with site (0, 0) in the upper left-hand corner. Only the sites
+ *  whose state changed are redrawn.
+ *
+ *  The file may also be a binary recording written by BinaryReplay.
+ *
+ *  If a directory is given as a second argument, nothing is drawn on
+ *  screen; each frame is written to that directory as a PNG instead.
  *
  ******************************************************************************/
 package hw2;
 import java.awt.Font;
+import java.io.File;
+import java.util.function.IntFunction;
 
 import edu.princeton.cs.algs4.In;
 import edu.princeton.cs.algs4.StdDraw;
@@ -27,7 +35,7 @@ public class PercolationVisualizer {
     private static final int DELAY = 100;
 
     // draw N-by-N percolation system
-    public static void draw(Percolation perc, int N) {
+    public static void draw(PercolationSystem perc, int N) {
         StdDraw.clear();
         StdDraw.setPenColor(StdDraw.BLACK);
         StdDraw.setXscale(-.05 * N, 1.05 * N);
@@ -60,28 +68,91 @@ public class PercolationVisualizer {
 
     }
 
-    private static void simulateFromFile(String filename) {
-        In in = new In(filename);
-        int N = in.readInt();
-        Percolation perc = new Percolation(N);
+    // redraw only the sites changed by the raster's last update, and the status text
+    public static void drawChanges(SiteRaster raster, PercolationSystem perc, int N) {
+        for (int i = 0; i < raster.changedCount(); i++) {
+            int site = raster.changed(i);
+            int row = site / N;
+            int col = site % N;
+            if (raster.state(site) == SiteRaster.FULL) {
+                StdDraw.setPenColor(StdDraw.BOOK_LIGHT_BLUE);
+            } else {
+                StdDraw.setPenColor(StdDraw.WHITE);
+            }
+            StdDraw.filledSquare(col + 0.5, N - row - 0.5, 0.45);
+        }
 
-        // turn on animation mode
-        StdDraw.show(0);
+        // clear the old status text and write the new one
+        StdDraw.setPenColor(StdDraw.WHITE);
+        StdDraw.filledRectangle(N / 2.0, -N * .025, N / 2.0, N * .025);
+        StdDraw.setFont(new Font("SansSerif", Font.PLAIN, 12));
+        StdDraw.setPenColor(StdDraw.BLACK);
+        StdDraw.text(.25 * N, -N * .025, perc.numberOfOpenSites() + " open sites");
+        if (perc.percolates()) {
+            StdDraw.text(.75 * N, -N * .025, "percolates");
+        } else {
+            StdDraw.text(.75 * N, -N * .025, "does not percolate");
+        }
+    }
 
-        // repeatedly read in sites to open and draw resulting system
-        draw(perc, N);
-        StdDraw.show(DELAY);
+    // reads the grid size from a text or binary recording, asks start for a
+    // consumer for that size, and feeds it every recorded site in order
+    private static void replay(String filename, IntFunction<SiteConsumer> start) {
+        if (BinaryReplay.isBinary(filename)) {
+            BinaryReplay replay = new BinaryReplay(new File(filename));
+            replay.forEach(start.apply(replay.size()));
+            return;
+        }
+        In in = new In(filename);
+        SiteConsumer consumer = start.apply(in.readInt());
         while (!in.isEmpty()) {
             int i = in.readInt();
             int j = in.readInt();
-            perc.open(i, j);
+            consumer.accept(i, j);
+        }
+    }
+
+    private static void simulateFromFile(String filename) {
+        replay(filename, N -> {
+            TrackingPercolation perc = new TrackingPercolation(new Percolation(N), N);
+            SiteRaster raster = new SiteRaster(N);
+
+            // turn on animation mode
+            StdDraw.show(0);
+
+            // repeatedly open recorded sites and draw the sites that changed
             draw(perc, N);
             StdDraw.show(DELAY);
-        }
+            return (i, j) -> {
+                perc.open(i, j);
+                raster.update(perc);
+                drawChanges(raster, perc, N);
+                StdDraw.show(DELAY);
+            };
+        });
+    }
+
+    private static void renderFromFile(String filename, File outputDir) {
+        replay(filename, N -> {
+            TrackingPercolation perc = new TrackingPercolation(new Percolation(N), N);
+            SiteRaster raster = new SiteRaster(N);
+            PngFrameWriter frames = new PngFrameWriter(outputDir, N, Math.max(1, 500 / N));
+
+            frames.writeFrame(raster);
+            return (i, j) -> {
+                perc.open(i, j);
+                raster.update(perc);
+                frames.writeFrame(raster);
+            };
+        });
     }
 
     public static void main(String[] args) {
         String filename = args[0];
-        simulateFromFile(filename);
+        if (args.length > 1) {
+            renderFromFile(filename, new File(args[1]));
+        } else {
+            simulateFromFile(filename);
+        }
     }
 }
@@ -0,0 +1,90 @@
+package hw2;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/** Renders a SiteRaster without a display, writing one PNG file per frame
+ * (frame-00000.png, frame-00001.png, ...) into a directory. The image is
+ * kept between frames and only the cells that changed are repainted.
+ */
+public class PngFrameWriter {
+    private static final int BLOCKED_RGB = 0x000000;
+    private static final int OPEN_RGB = 0xFFFFFF;
+    // StdDraw.BOOK_LIGHT_BLUE
+    private static final int FULL_RGB = 0x67C6F3;
+
+    private File dir;
+    private int scale;
+    private BufferedImage image;
+    private int frames;
+
+    /** Creates a writer for rasters of N-by-N systems drawn with scale by
+     * scale pixels per site.
+     *
+     * @param dir
+     * @param N
+     * @param scale
+     */
+    public PngFrameWriter(File dir, int N, int scale) {
+        if (scale <= 0) {
+            throw new java.lang.IllegalArgumentException("The scale must be greater than 0.");
+        }
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            throw new java.lang.IllegalArgumentException("Could not create " + dir);
+        }
+        this.dir = dir;
+        this.scale = scale;
+        image = new BufferedImage(N * scale, N * scale, BufferedImage.TYPE_INT_RGB);
+        frames = 0;
+    }
+
+    private static int rgb(int state) {
+        if (state == SiteRaster.FULL) {
+            return FULL_RGB;
+        } else if (state == SiteRaster.OPEN) {
+            return OPEN_RGB;
+        }
+        return BLOCKED_RGB;
+    }
+
+    private void paint(SiteRaster raster, int site) {
+        int N = raster.size();
+        int x0 = (site % N) * scale;
+        int y0 = (site / N) * scale;
+        int color = rgb(raster.state(site));
+        for (int y = y0; y < y0 + scale; y += 1) {
+            for (int x = x0; x < x0 + scale; x += 1) {
+                image.setRGB(x, y, color);
+            }
+        }
+    }
+
+    /** Repaints the cells changed by the raster's last update and writes the
+     * image as the next frame.
+     *
+     * @param raster
+     */
+    public void writeFrame(SiteRaster raster) {
+        for (int i = 0; i < raster.changedCount(); i += 1) {
+            paint(raster, raster.changed(i));
+        }
+        File file = new File(dir, String.format("frame-%05d.png", frames));
+        try {
+            ImageIO.write(image, "png", file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write " + file, e);
+        }
+        frames += 1;
+    }
+
+    /** Returns the number of frames written so far.
+     *
+     * @return int
+     */
+    public int frames() {
+        return frames;
+    }
+}
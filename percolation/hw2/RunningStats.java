@@ -0,0 +1,115 @@
+package hw2;
+
+/** Running mean and variance of a stream of samples, kept in constant memory.
+ * Uses Welford's update for single samples and Chan et al.'s pairwise formula
+ * to merge partial results computed on different threads.
+ */
+public class RunningStats {
+    private long count;
+    private double mean;
+    private double m2;
+
+    /** Creates an empty RunningStats. */
+    public RunningStats() {
+        count = 0;
+        mean = 0.0;
+        m2 = 0.0;
+    }
+
+    /** Creates a RunningStats from a previously saved state. With a count of
+     * zero the mean and m2 are ignored, since mean() reports NaN for an empty
+     * RunningStats and that is what gets saved.
+     *
+     * @param count
+     * @param mean
+     * @param m2 sum of squared differences from the mean
+     */
+    public RunningStats(long count, double mean, double m2) {
+        if (count < 0) {
+            throw new java.lang.IllegalArgumentException("Count must not be negative.");
+        }
+        if (count == 0) {
+            mean = 0.0;
+            m2 = 0.0;
+        } else if (!Double.isFinite(mean) || !Double.isFinite(m2) || m2 < 0) {
+            throw new java.lang.IllegalArgumentException("Saved mean " + mean + " and m2 " + m2
+                    + " are not valid for " + count + " samples.");
+        }
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+    }
+
+    /** Adds a single sample.
+     *
+     * @param x
+     */
+    public void add(double x) {
+        count += 1;
+        double delta = x - mean;
+        mean += delta / count;
+        m2 += delta * (x - mean);
+    }
+
+    /** Folds the samples summarized by other into this RunningStats.
+     *
+     * @param other
+     * @return this RunningStats
+     */
+    public RunningStats merge(RunningStats other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            return this;
+        }
+        long n = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / n;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / n);
+        count = n;
+        return this;
+    }
+
+    /** Returns the number of samples seen so far.
+     *
+     * @return long
+     */
+    public long count() {
+        return count;
+    }
+
+    /** Returns the sample mean, or NaN if no samples were added.
+     *
+     * @return double
+     */
+    public double mean() {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        return mean;
+    }
+
+    /** Returns the sum of squared differences from the mean.
+     *
+     * @return double
+     */
+    public double m2() {
+        return m2;
+    }
+
+    /** Returns the sample standard deviation, or NaN if fewer than two
+     * samples were added.
+     *
+     * @return double
+     */
+    public double stddev() {
+        if (count < 2) {
+            return Double.NaN;
+        }
+        return Math.sqrt(m2 / (count - 1));
+    }
+}
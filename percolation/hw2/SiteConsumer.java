@@ -0,0 +1,7 @@
+package hw2;
+
+/** Receives a stream of sites, one (row, col) pair at a time, without boxing. */
+@FunctionalInterface
+public interface SiteConsumer {
+    void accept(int row, int col);
+}
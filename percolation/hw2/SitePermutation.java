@@ -0,0 +1,96 @@
+package hw2;
+
+import java.util.SplittableRandom;
+
+/** Hands out the sites of an N-by-N grid in uniformly random order without
+ * repeats. The Fisher-Yates shuffle is done lazily, one swap per call to
+ * next, so drawing k sites costs O(k) after the array is allocated.
+ */
+public class SitePermutation {
+    private int[] order;
+    private int drawn;
+    private SplittableRandom rng;
+
+    /** Creates a permutation over the N * N sites of a grid.
+     *
+     * @param N
+     * @param rng
+     */
+    public SitePermutation(int N, SplittableRandom rng) {
+        this(gridSites(N), rng);
+    }
+
+    /** Creates a permutation over the indices 0 through n - 1. The count is
+     * a long so that N * N can be passed without overflowing and checked
+     * here, in one place.
+     */
+    private SitePermutation(long n, SplittableRandom rng) {
+        if (n < 0) {
+            throw new java.lang.IllegalArgumentException("The number of sites must not "
+                    + "be negative.");
+        }
+        if (n > Integer.MAX_VALUE) {
+            throw new java.lang.IllegalArgumentException(n + " sites are too many to permute.");
+        }
+        order = new int[(int) n];
+        drawn = 0;
+        this.rng = rng;
+    }
+
+    /** Creates a permutation over the indices 0 through n - 1, for lattices
+     * that are not N-by-N grids.
+     *
+     * @param n
+     * @param rng
+     * @return SitePermutation
+     */
+    public static SitePermutation ofSize(int n, SplittableRandom rng) {
+        return new SitePermutation((long) n, rng);
+    }
+
+    private static long gridSites(int N) {
+        if (N <= 0) {
+            throw new java.lang.IllegalArgumentException("The grid's "
+                    + "dimensions must be grater than 0.");
+        }
+        return (long) N * N;
+    }
+
+    /** Slots that have not been touched yet hold 0 and stand for their own
+     * index, which saves filling the array with the identity up front.
+     */
+    private int valueAt(int i) {
+        return order[i] == 0 ? i : order[i] - 1;
+    }
+
+    /** Returns whether there are sites left to draw.
+     *
+     * @return boolean
+     */
+    public boolean hasNext() {
+        return drawn < order.length;
+    }
+
+    /** Returns the 1D index (row * N + col) of the next site.
+     *
+     * @return int
+     */
+    public int next() {
+        if (!hasNext()) {
+            throw new java.util.NoSuchElementException("Every site has been drawn.");
+        }
+        int j = drawn + rng.nextInt(order.length - drawn);
+        int site = valueAt(j);
+        order[j] = valueAt(drawn) + 1;
+        drawn += 1;
+        return site;
+    }
+
+    /** Returns the number of sites drawn so far.
+     *
+     * @return int
+     */
+    public int drawn() {
+        return drawn;
+    }
+}
@@ -0,0 +1,132 @@
+package hw2;
+
+/** The blocked/open/full state of every site of an N-by-N system as an int[]
+ * raster, kept up to date from the dirty set of a TrackingPercolation. A
+ * site can only become full through a newly opened site, so each update
+ * asks isFull once per opened site and floods the raster from the ones that
+ * are full; every site turns full at most once, so keeping the raster up to
+ * date costs O(N^2) over a whole run instead of O(N^2) per frame.
+ */
+public class SiteRaster {
+    public static final int BLOCKED = 0;
+    public static final int OPEN = 1;
+    public static final int FULL = 2;
+
+    private int colSize;
+    private int[] state;
+    private int[] changed;
+    private int changedCount;
+    private int[] stack;
+
+    /** Creates a raster of an N-by-N system with every site blocked.
+     *
+     * @param N
+     */
+    public SiteRaster(int N) {
+        colSize = N;
+        state = new int[N * N];
+        changed = new int[N * N];
+        stack = new int[N * N];
+        changedCount = 0;
+    }
+
+    /** Applies the sites perc opened since its dirty set was last cleared,
+     * clears it, and returns how many sites changed state.
+     *
+     * @param perc
+     * @return int
+     */
+    public int update(TrackingPercolation perc) {
+        changedCount = 0;
+        for (int i = 0; i < perc.dirtyCount(); i += 1) {
+            int site = perc.dirty(i);
+            if (state[site] != BLOCKED) {
+                continue;
+            }
+            if (perc.isFull(site / colSize, site % colSize)) {
+                flood(site);
+            } else {
+                state[site] = OPEN;
+                changed[changedCount] = site;
+                changedCount += 1;
+            }
+        }
+        perc.clearDirty();
+        return changedCount;
+    }
+
+    /** Marks site full, along with every open site connected to it that is
+     * not full yet.
+     */
+    private void flood(int site) {
+        int size = 0;
+        state[site] = FULL;
+        changed[changedCount] = site;
+        changedCount += 1;
+        stack[size] = site;
+        size += 1;
+        while (size > 0) {
+            size -= 1;
+            int s = stack[size];
+            int row = s / colSize;
+            int col = s % colSize;
+            if (row > 0) {
+                size = fill(s - colSize, size);
+            }
+            if (row < colSize - 1) {
+                size = fill(s + colSize, size);
+            }
+            if (col > 0) {
+                size = fill(s - 1, size);
+            }
+            if (col < colSize - 1) {
+                size = fill(s + 1, size);
+            }
+        }
+    }
+
+    private int fill(int s, int size) {
+        if (state[s] != OPEN) {
+            return size;
+        }
+        state[s] = FULL;
+        changed[changedCount] = s;
+        changedCount += 1;
+        stack[size] = s;
+        return size + 1;
+    }
+
+    /** Returns the state of the site at the given 1D index.
+     *
+     * @param site
+     * @return int
+     */
+    public int state(int site) {
+        return state[site];
+    }
+
+    /** Returns the 1D index of the i-th site changed by the last update.
+     *
+     * @param i
+     * @return int
+     */
+    public int changed(int i) {
+        return changed[i];
+    }
+
+    /** Returns the number of sites changed by the last update.
+     *
+     * @return int
+     */
+    public int changedCount() {
+        return changedCount;
+    }
+
+    /** Returns the number of rows (and columns).
+     *
+     * @return int
+     */
+    public int size() {
+        return colSize;
+    }
+}
@@ -0,0 +1,79 @@
+package hw2;
+
+import java.util.SplittableRandom;
+
+/** Draws uniformly random site indices in [0, n), with repeats, a batch at a
+ * time. The generator is xoshiro256**, seeded through SplitMix64 from one
+ * draw of a SplittableRandom so it stays on the caller's seed tree. Each
+ * 64-bit output is mapped to [0, n) with Lemire's multiply-shift, taking the
+ * high half of the 128-bit product, which rejects only the rare values that
+ * would bias the result, so there is no division and almost no branching.
+ * The count is a long, so grids beyond 46340 by 46340 sites are covered.
+ */
+public class SiteSampler {
+    private long n;
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    /** Creates a sampler over the indices 0 through n - 1, seeded from rng.
+     *
+     * @param n
+     * @param rng
+     */
+    public SiteSampler(long n, SplittableRandom rng) {
+        if (n <= 0) {
+            throw new java.lang.IllegalArgumentException("The number of sites must be "
+                    + "greater than 0.");
+        }
+        this.n = n;
+        long seed = rng.nextLong();
+        seed += 0x9E3779B97F4A7C15L;
+        s0 = mix(seed);
+        seed += 0x9E3779B97F4A7C15L;
+        s1 = mix(seed);
+        seed += 0x9E3779B97F4A7C15L;
+        s2 = mix(seed);
+        seed += 0x9E3779B97F4A7C15L;
+        s3 = mix(seed);
+    }
+
+    /* The SplitMix64 output function. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private long nextLong() {
+        long result = Long.rotateLeft(s1 * 5, 7) * 9;
+        long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    /** Fills batch with random site indices.
+     *
+     * @param batch
+     */
+    public void fill(long[] batch) {
+        // 2^64 mod n; values whose low product falls below this are biased
+        long threshold = Long.remainderUnsigned(-n, n);
+        int i = 0;
+        while (i < batch.length) {
+            long bits = nextLong();
+            long low = bits * n;
+            if (Long.compareUnsigned(low, threshold) >= 0) {
+                // high half of the unsigned product bits * n, for n >= 0
+                batch[i] = Math.multiplyHigh(bits, n) + ((bits >> 63) & n);
+                i += 1;
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package hw2;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/** Decides whether an N-by-N configuration percolates by labeling clusters
+ * one row at a time (Hoshen-Kopelman). Only the labels of the previous row,
+ * the row being added and a union-find over at most 2N labels are kept, so
+ * the whole grid never has to be in memory: a check costs O(N) space.
+ * After each row the labels are renumbered 0, 1, ... so the tables never
+ * grow, and each label remembers whether its cluster reaches the top row.
+ */
+public class StreamingPercolation {
+    private int colSize;
+    private int rows;
+    private int[] prev;
+    private int[] cur;
+    private int prevLabels;
+    private boolean[] prevTop;
+    private int[] parent;
+    private boolean[] top;
+    private int[] renumber;
+    private boolean alive;
+
+    /** Creates a StreamingPercolation for grids with N columns.
+     *
+     * @param N
+     */
+    public StreamingPercolation(int N) {
+        if (N <= 0) {
+            throw new java.lang.IllegalArgumentException("The grid's "
+                    + "dimensions must be grater than 0.");
+        }
+        colSize = N;
+        prev = new int[N];
+        cur = new int[N];
+        prevTop = new boolean[N];
+        parent = new int[2 * N];
+        top = new boolean[2 * N];
+        renumber = new int[2 * N];
+        reset();
+    }
+
+    /** Forgets every row added so far. */
+    public void reset() {
+        rows = 0;
+        prevLabels = 0;
+        alive = true;
+    }
+
+    private int find(int p) {
+        while (parent[p] != p) {
+            parent[p] = parent[parent[p]];
+            p = parent[p];
+        }
+        return p;
+    }
+
+    private void union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP != rootQ) {
+            parent[rootQ] = rootP;
+            top[rootP] |= top[rootQ];
+        }
+    }
+
+    /** Adds the next row, where open[col] says whether site col is open.
+     * Returns false once no open site in the newest row is connected to the
+     * top, after which the grid can no longer percolate and further rows
+     * are ignored.
+     *
+     * @param open
+     * @return boolean
+     */
+    public boolean addRow(boolean[] open) {
+        if (open.length != colSize) {
+            throw new java.lang.IllegalArgumentException("Rows must have " + colSize
+                    + " sites.");
+        }
+        if (!alive) {
+            return false;
+        }
+        for (int label = 0; label < prevLabels; label += 1) {
+            parent[label] = label;
+            top[label] = prevTop[label];
+        }
+        int labels = prevLabels;
+        for (int col = 0; col < colSize; col += 1) {
+            if (!open[col]) {
+                cur[col] = -1;
+            } else if (col > 0 && cur[col - 1] >= 0) {
+                cur[col] = cur[col - 1];
+            } else {
+                cur[col] = labels;
+                parent[labels] = labels;
+                top[labels] = rows == 0;
+                labels += 1;
+            }
+            if (rows > 0 && cur[col] >= 0 && prev[col] >= 0) {
+                union(prev[col], cur[col]);
+            }
+        }
+
+        Arrays.fill(renumber, 0, labels, -1);
+        int next = 0;
+        boolean reachesTop = false;
+        for (int col = 0; col < colSize; col += 1) {
+            if (cur[col] < 0) {
+                continue;
+            }
+            int root = find(cur[col]);
+            if (renumber[root] < 0) {
+                renumber[root] = next;
+                prevTop[next] = top[root];
+                reachesTop |= top[root];
+                next += 1;
+            }
+            cur[col] = renumber[root];
+        }
+        int[] tmp = prev;
+        prev = cur;
+        cur = tmp;
+        prevLabels = next;
+        rows += 1;
+        alive = reachesTop;
+        return alive;
+    }
+
+    /** Returns whether the rows added so far percolate, that is whether some
+     * open site of the newest row is connected to the first row.
+     *
+     * @return boolean
+     */
+    public boolean percolates() {
+        return rows > 0 && alive;
+    }
+
+    /** Returns the number of rows added so far.
+     *
+     * @return int
+     */
+    public int rows() {
+        return rows;
+    }
+
+    /** Returns whether an N-by-N grid in which every site is open
+     * independently with probability p percolates. Rows are generated
+     * on the fly, and generation stops as soon as the top is cut off.
+     *
+     * @param N
+     * @param p
+     * @param rng
+     * @return boolean
+     */
+    public static boolean percolates(int N, double p, SplittableRandom rng) {
+        StreamingPercolation sp = new StreamingPercolation(N);
+        boolean[] row = new boolean[N];
+        for (int i = 0; i < N; i += 1) {
+            for (int col = 0; col < N; col += 1) {
+                row[col] = rng.nextDouble() < p;
+            }
+            if (!sp.addRow(row)) {
+                return false;
+            }
+        }
+        return sp.percolates();
+    }
+}
@@ -0,0 +1,304 @@
+package hw2;
+import org.junit.Test;
+import java.util.SplittableRandom;
+import static org.junit.Assert.*;
+
+/** Checks every PercolationFactory type against the classic Percolation. */
+public class TestPercolation {
+    private static void assertSameState(PercolationSystem expected, PercolationSystem actual,
+                                        int N) {
+        assertEquals(expected.numberOfOpenSites(), actual.numberOfOpenSites());
+        assertEquals(expected.percolates(), actual.percolates());
+        for (int row = 0; row < N; row += 1) {
+            for (int col = 0; col < N; col += 1) {
+                assertEquals(expected.isOpen(row, col), actual.isOpen(row, col));
+                assertEquals(expected.isFull(row, col), actual.isFull(row, col));
+            }
+        }
+    }
+
+    @Test
+    public void testRandomOpensMatchClassic() {
+        SplittableRandom rng = new SplittableRandom(61);
+        for (PercolationFactory.Type type : PercolationFactory.Type.values()) {
+            PercolationFactory pf = new PercolationFactory(type);
+            for (int N = 1; N <= 12; N += 1) {
+                Percolation expected = new Percolation(N);
+                try (PercolationSystem actual = pf.makeSystem(N)) {
+                    for (int i = 0; i < N * N; i += 1) {
+                        int row = rng.nextInt(N);
+                        int col = rng.nextInt(N);
+                        expected.open(row, col);
+                        actual.open(row, col);
+                        assertSameState(expected, actual, N);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testMakeStillReturnsPercolation() {
+        for (PercolationFactory.Type type : PercolationFactory.Type.values()) {
+            Percolation p = new PercolationFactory(type).make(2);
+            p.open(0, 0);
+            assertEquals(1, p.numberOfOpenSites());
+        }
+    }
+
+    @Test
+    public void testNoBackwash() {
+        for (PercolationFactory.Type type : PercolationFactory.Type.values()) {
+            try (PercolationSystem p = new PercolationFactory(type).makeSystem(3)) {
+                p.open(0, 0);
+                p.open(1, 0);
+                p.open(2, 0);
+                p.open(2, 2);
+                assertTrue(p.percolates());
+                assertTrue(p.isFull(2, 0));
+                assertFalse(p.isFull(2, 2));
+            }
+        }
+    }
+
+    @Test
+    public void testBulkLoadMatchesSequentialOpens() {
+        SplittableRandom rng = new SplittableRandom(12);
+        for (int N = 1; N <= 40; N += 3) {
+            int[] rows = new int[N * N / 2 + 1];
+            int[] cols = new int[rows.length];
+            long[] bitmap = new long[(N * N + 63) / 64];
+            Percolation expected = new Percolation(N);
+            for (int i = 0; i < rows.length; i += 1) {
+                rows[i] = rng.nextInt(N);
+                cols[i] = rng.nextInt(N);
+                int index = rows[i] * N + cols[i];
+                bitmap[index / 64] |= 1L << index;
+                expected.open(rows[i], cols[i]);
+            }
+            UnionFindPercolation batched = new UnionFindPercolation(N);
+            batched.openAll(rows, cols);
+            assertSameState(expected, batched, N);
+            assertSameState(expected, new UnionFindPercolation(N, bitmap), N);
+        }
+    }
+
+    @Test
+    public void testDynamicMatchesRebuild() {
+        SplittableRandom rng = new SplittableRandom(5);
+        for (int N = 1; N <= 6; N += 1) {
+            DynamicPercolation dp = new DynamicPercolation(N);
+            boolean[] open = new boolean[N * N];
+            boolean[] expected = new boolean[8 * N * N];
+            int queries = 0;
+            for (int i = 0; i < 8 * N * N; i += 1) {
+                int row = rng.nextInt(N);
+                int col = rng.nextInt(N);
+                int op = rng.nextInt(5);
+                if (op <= 1) {
+                    dp.open(row, col);
+                    open[row * N + col] = true;
+                } else if (op == 2) {
+                    dp.close(row, col);
+                    open[row * N + col] = false;
+                } else {
+                    UnionFindPercolation p = new UnionFindPercolation(N);
+                    for (int s = 0; s < N * N; s += 1) {
+                        if (open[s]) {
+                            p.open(s / N, s % N);
+                        }
+                    }
+                    if (op == 3) {
+                        assertEquals(queries, dp.queryPercolates());
+                        expected[queries] = p.percolates();
+                    } else {
+                        assertEquals(queries, dp.queryFull(row, col));
+                        expected[queries] = p.isFull(row, col);
+                    }
+                    queries += 1;
+                }
+            }
+            boolean[] actual = dp.solve();
+            for (int q = 0; q < queries; q += 1) {
+                assertEquals(expected[q], actual[q]);
+            }
+        }
+    }
+
+    /* Labels the clusters of p by flood fill and checks its cluster statistics. */
+    private static void assertClustersMatchScan(ClusterStatistics p, int N) {
+        int[] label = new int[N * N];
+        int[] stack = new int[N * N];
+        int[] histogram = new int[N * N + 1];
+        int clusters = 0;
+        int largest = 0;
+        int spanning = 0;
+        for (int start = 0; start < N * N; start += 1) {
+            if (label[start] != 0 || !p.isOpen(start / N, start % N)) {
+                continue;
+            }
+            clusters += 1;
+            label[start] = clusters;
+            stack[0] = start;
+            int top = 1;
+            int size = 0;
+            boolean touchesTop = false;
+            boolean touchesBottom = false;
+            while (top > 0) {
+                top -= 1;
+                int site = stack[top];
+                int row = site / N;
+                int col = site % N;
+                size += 1;
+                touchesTop |= row == 0;
+                touchesBottom |= row == N - 1;
+                int[] next = {row > 0 ? site - N : -1, row < N - 1 ? site + N : -1,
+                    col > 0 ? site - 1 : -1, col < N - 1 ? site + 1 : -1};
+                for (int q : next) {
+                    if (q >= 0 && label[q] == 0 && p.isOpen(q / N, q % N)) {
+                        label[q] = clusters;
+                        stack[top] = q;
+                        top += 1;
+                    }
+                }
+            }
+            histogram[size] += 1;
+            largest = Math.max(largest, size);
+            if (touchesTop && touchesBottom) {
+                spanning += size;
+            }
+        }
+        assertEquals(clusters, p.clusterCount());
+        assertEquals(largest, p.largestCluster());
+        assertEquals(spanning, p.spanningMass());
+        assertEquals(spanning > 0, p.percolates());
+        int[] actual = p.sizeHistogram();
+        assertEquals(largest + 1, actual.length);
+        for (int size = 1; size <= largest; size += 1) {
+            assertEquals(histogram[size], actual[size]);
+            assertEquals(histogram[size], p.clustersOfSize(size));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testDynamicRejectsOversizedGrid() {
+        // 46341 * 46341 overflows an int
+        new DynamicPercolation(46341);
+    }
+
+    @Test
+    public void testClusterStatisticsMatchScan() {
+        SplittableRandom rng = new SplittableRandom(17);
+        for (int N = 1; N <= 12; N += 1) {
+            ClusterPercolation p = new ClusterPercolation(N);
+            for (int i = 0; i < N * N; i += 1) {
+                p.open(rng.nextInt(N), rng.nextInt(N));
+                assertClustersMatchScan(p, N);
+            }
+        }
+    }
+
+    @Test
+    public void testSiteSamplerCoversLargeGrids() {
+        int N = 70000;
+        long n = (long) N * N;
+        SiteSampler sampler = new SiteSampler(n, new SplittableRandom(19));
+        long[] batch = new long[1 << 16];
+        sampler.fill(batch);
+        int[] rowsPerTenth = new int[10];
+        for (long site : batch) {
+            assertTrue(site >= 0 && site < n);
+            rowsPerTenth[(int) (site / N) / (N / 10)] += 1;
+        }
+        // every tenth of the rows should get about a tenth of the draws
+        for (int count : rowsPerTenth) {
+            assertTrue(Math.abs(count - batch.length / 10) < batch.length / 50);
+        }
+    }
+
+    @Test
+    public void testOnlyClusterFactoryKeepsClusterStatistics() {
+        for (PercolationFactory.Type type : PercolationFactory.Type.values()) {
+            PercolationFactory pf = new PercolationFactory(type);
+            try (PercolationSystem p = pf.makeSystem(2)) {
+                assertEquals(p instanceof ClusterStatistics, pf.keepsClusterStatistics());
+            }
+        }
+        ClusterStats stats = PercolationStats.clustersAtThreshold(8, 4,
+                new PercolationFactory(PercolationFactory.Type.CLUSTER), 3, 2);
+        assertEquals(4, stats.trials());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testClustersAtThresholdRejectsPlainFactory() {
+        PercolationStats.clustersAtThreshold(8, 4,
+                new PercolationFactory(PercolationFactory.Type.MAPPED), 3, 2);
+    }
+
+    @Test
+    public void testMappedOpenSiteCountAndClose() {
+        MappedPercolation p = new MappedPercolation(10);
+        for (int col = 0; col < 10; col += 1) {
+            p.open(3, col);
+        }
+        assertEquals(10, p.numberOfOpenSites());
+        assertEquals(10L, p.openSiteCount());
+        p.close();
+        p.close();
+        PercolationStats stats = new PercolationStats(20, 8,
+                new PercolationFactory(PercolationFactory.Type.MAPPED), 5, 2);
+        assertTrue(stats.mean() > 0.5 && stats.mean() < 0.7);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testMappedArrayUnusableAfterClose() {
+        MappedLongArray a = new MappedLongArray(100, null);
+        a.set(7, 42);
+        assertEquals(42, a.get(7));
+        a.close();
+        a.get(7);
+    }
+
+    @Test
+    public void testUntilHalfWidthStopsAtMaxTrials() {
+        PercolationFactory pf = new PercolationFactory(PercolationFactory.Type.UNION_FIND);
+        // no finite number of trials reaches this half-width
+        PercolationStats capped = PercolationStats.untilHalfWidth(8, 1e-12, 100, pf, 3, 2,
+                PercolationStats.Sampling.PERMUTATION);
+        assertEquals(100, capped.trials());
+        assertTrue(capped.confidenceHigh() - capped.confidenceLow() > 2e-12);
+        PercolationStats loose = PercolationStats.untilHalfWidth(8, 0.05, 100000, pf, 3, 2,
+                PercolationStats.Sampling.PERMUTATION);
+        assertTrue(loose.confidenceHigh() - loose.confidenceLow() <= 0.1);
+    }
+
+    @Test
+    public void testSweepIgnoresDuplicateSizes() {
+        PercolationFactory pf = new PercolationFactory(PercolationFactory.Type.UNION_FIND);
+        FiniteSizeSweep sweep = new FiniteSizeSweep(new int[]{8, 4, 8}, 30, pf,
+                PercolationStats.Sampling.PERMUTATION, 5, 2, null);
+        sweep.run();
+        assertEquals(30, sweep.stats(8).count());
+        assertEquals(30, sweep.stats(4).count());
+    }
+
+    @Test
+    public void testRestoredEmptyStatsAcceptSamples() {
+        // an empty RunningStats saves its mean as NaN
+        RunningStats restored = new RunningStats(0, Double.NaN, 0.0);
+        restored.add(0.25);
+        restored.add(0.75);
+        assertEquals(0.5, restored.mean(), 1e-12);
+        try {
+            new RunningStats(2, Double.NaN, 0.0);
+            fail("NaN mean accepted for a nonempty RunningStats");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testOutOfRange() {
+        new UnionFindPercolation(4).open(4, 0);
+    }
+}
@@ -0,0 +1,28 @@
+package hw2;
+
+/** Finds the number of open sites at which a grid first percolates in one
+ * union-find sweep over an opening order. The sweep runs on a
+ * UnionFindPercolation, whose roots carry bits saying whether their
+ * component touches the top or the bottom row. Those bits are merged on
+ * union, so percolates() is a field read rather than a connectivity query.
+ */
+public class ThresholdSweep {
+    /** Opens sites of an N-by-N grid in the order given by sites and returns
+     * how many were open when the grid first percolated.
+     *
+     * @param N
+     * @param sites
+     * @return int
+     */
+    public static int openingsToPercolate(int N, SitePermutation sites) {
+        UnionFindPercolation p = new UnionFindPercolation(N);
+        while (sites.hasNext()) {
+            int site = sites.next();
+            p.open(site / N, site % N);
+            if (p.percolates()) {
+                return sites.drawn();
+            }
+        }
+        throw new java.lang.IllegalStateException("Opening every site must percolate.");
+    }
+}
@@ -0,0 +1,91 @@
+package hw2;
+
+import java.util.Arrays;
+
+/** Wraps a PercolationSystem and remembers which sites were opened since the
+ * dirty set was last cleared, so renderers can repaint only what changed.
+ */
+public class TrackingPercolation implements PercolationSystem {
+    private PercolationSystem perc;
+    private int colSize;
+    private int[] dirty;
+    private int dirtyCount;
+
+    /** Wraps perc, an N-by-N system.
+     *
+     * @param perc
+     * @param N
+     */
+    public TrackingPercolation(PercolationSystem perc, int N) {
+        this.perc = perc;
+        colSize = N;
+        dirty = new int[16];
+        dirtyCount = 0;
+    }
+
+    @Override
+    public void open(int row, int col) {
+        if (perc.isOpen(row, col)) {
+            return;
+        }
+        perc.open(row, col);
+        if (dirtyCount == dirty.length) {
+            dirty = Arrays.copyOf(dirty, 2 * dirtyCount);
+        }
+        dirty[dirtyCount] = row * colSize + col;
+        dirtyCount += 1;
+    }
+
+    @Override
+    public boolean isOpen(int row, int col) {
+        return perc.isOpen(row, col);
+    }
+
+    @Override
+    public boolean isFull(int row, int col) {
+        return perc.isFull(row, col);
+    }
+
+    @Override
+    public int numberOfOpenSites() {
+        return perc.numberOfOpenSites();
+    }
+
+    @Override
+    public long openSiteCount() {
+        return perc.openSiteCount();
+    }
+
+    @Override
+    public boolean percolates() {
+        return perc.percolates();
+    }
+
+    @Override
+    public void close() {
+        perc.close();
+    }
+
+    /** Returns the number of sites opened since the last clearDirty.
+     *
+     * @return int
+     */
+    public int dirtyCount() {
+        return dirtyCount;
+    }
+
+    /** Returns the 1D index (row * N + col) of the i-th site opened since the
+     * last clearDirty.
+     *
+     * @param i
+     * @return int
+     */
+    public int dirty(int i) {
+        return dirty[i];
+    }
+
+    /** Empties the dirty set. */
+    public void clearDirty() {
+        dirtyCount = 0;
+    }
+}
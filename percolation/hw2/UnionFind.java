@@ -0,0 +1,187 @@
+package hw2;
+
+import hw2.metrics.Metrics;
+
+/** A union-find over the integers 0 through n - 1 that keeps everything in a
+ * single int[]. A non-root slot holds its parent plus one, and a root holds
+ * minus its rank shifted left by TAG_BITS, or'd with the component's tags.
+ * A freshly allocated (all zero) array is therefore n untagged singleton
+ * components, and no separate size, rank or flag array is needed. Finds use
+ * path halving and unions link by rank, merging the tags of both roots.
+ */
+public class UnionFind {
+    /** The number of low bits of a root reserved for caller-defined tags. */
+    public static final int TAG_BITS = 8;
+    private static final int TAG_MASK = (1 << TAG_BITS) - 1;
+
+    private int[] nodes;
+    private int count;
+
+    /** Creates a UnionFind with n singleton components.
+     *
+     * @param n
+     */
+    public UnionFind(int n) {
+        if (n < 0) {
+            throw new java.lang.IllegalArgumentException("The number of elements must "
+                    + "not be negative.");
+        }
+        nodes = new int[n];
+        count = n;
+    }
+
+    /** Returns the root of the component containing p.
+     *
+     * @param p
+     * @return int
+     */
+    public int find(int p) {
+        int steps = 0;
+        int next = nodes[p];
+        while (next > 0) {
+            int grand = nodes[next - 1];
+            if (grand > 0) {
+                nodes[p] = grand;
+                p = grand - 1;
+                steps += 2;
+            } else {
+                if (Metrics.ENABLED) {
+                    Metrics.find(steps + 1);
+                }
+                return next - 1;
+            }
+            next = nodes[p];
+        }
+        if (Metrics.ENABLED) {
+            Metrics.find(steps);
+        }
+        return p;
+    }
+
+    /** Returns whether p and q are in the same component.
+     *
+     * @param p
+     * @param q
+     * @return boolean
+     */
+    public boolean connected(int p, int q) {
+        return find(p) == find(q);
+    }
+
+    /** Merges the components containing p and q and returns the root of
+     * the merged component.
+     *
+     * @param p
+     * @param q
+     * @return int
+     */
+    public int union(int p, int q) {
+        int rootP = find(p);
+        int rootQ = find(q);
+        if (rootP == rootQ) {
+            return rootP;
+        }
+        return link(rootP, rootQ);
+    }
+
+    /** Merges the component containing p with the components containing the
+     * first count entries of qs, and returns the root of the result. Meant for
+     * joining a site with all of its open neighbors at once.
+     *
+     * @param p
+     * @param qs
+     * @param count
+     * @return int
+     */
+    public int unionAll(int p, int[] qs, int count) {
+        int root = find(p);
+        for (int i = 0; i < count; i += 1) {
+            int other = find(qs[i]);
+            if (other != root) {
+                root = link(root, other);
+            }
+        }
+        return root;
+    }
+
+    /** Links two distinct roots by rank and returns the surviving root.
+     *
+     * @param rootP
+     * @param rootQ
+     * @return int
+     */
+    public int link(int rootP, int rootQ) {
+        count -= 1;
+        return linkUncounted(rootP, rootQ);
+    }
+
+    /** Links two distinct roots like link, but leaves the component count
+     * alone. For callers that union disjoint index ranges on several threads
+     * and settle the count afterwards with uncount.
+     */
+    int linkUncounted(int rootP, int rootQ) {
+        int rankP = -nodes[rootP] >>> TAG_BITS;
+        int rankQ = -nodes[rootQ] >>> TAG_BITS;
+        int tags = (-nodes[rootP] | -nodes[rootQ]) & TAG_MASK;
+        if (rankP < rankQ) {
+            nodes[rootP] = rootQ + 1;
+            nodes[rootQ] = -((rankQ << TAG_BITS) | tags);
+            return rootQ;
+        }
+        if (rankP == rankQ) {
+            rankP += 1;
+        }
+        nodes[rootQ] = rootP + 1;
+        nodes[rootP] = -((rankP << TAG_BITS) | tags);
+        return rootP;
+    }
+
+    /** Lowers the component count by the number of links made with
+     * linkUncounted.
+     */
+    void uncount(int links) {
+        count -= links;
+    }
+
+    /** Returns the tags of the component rooted at root.
+     *
+     * @param root
+     * @return int
+     */
+    public int tags(int root) {
+        return -nodes[root] & TAG_MASK;
+    }
+
+    /** Adds the given tag bits to the component rooted at root and returns
+     * all of its tags.
+     *
+     * @param root
+     * @param tags
+     * @return int
+     */
+    public int addTags(int root, int tags) {
+        if ((tags & ~TAG_MASK) != 0) {
+            throw new java.lang.IllegalArgumentException("Tags must fit in "
+                    + TAG_BITS + " bits.");
+        }
+        int merged = -nodes[root] | tags;
+        nodes[root] = -merged;
+        return merged & TAG_MASK;
+    }
+
+    /** Returns the number of components.
+     *
+     * @return int
+     */
+    public int count() {
+        return count;
+    }
+
+    /** Returns the number of elements.
+     *
+     * @return int
+     */
+    public int size() {
+        return nodes.length;
+    }
+}
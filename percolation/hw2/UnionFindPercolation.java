@@ -0,0 +1,281 @@
+package hw2;
+
+import hw2.metrics.Metrics;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/** A Percolation system backed by a single UnionFind. Each root records
+ * whether its component touches the top row and whether it touches the
+ * bottom row, so there is no virtual bottom site to cause backwash and no
+ * second union-find to work around it.
+ */
+public class UnionFindPercolation implements PercolationSystem {
+    private static final byte TOP = 1;
+    private static final byte BOTTOM = 2;
+    private static final byte SPANNING = TOP | BOTTOM;
+    /** A batch opening at least 1 / BULK_FRACTION of an empty grid is loaded in bulk. */
+    private static final int BULK_FRACTION = 16;
+
+    private int colSize;
+    private UnionFind uf;
+    private byte[] flags;
+    private int[] neighbors;
+    private boolean[] sites;
+    private int openSites;
+    private boolean percolates;
+
+    /** A constructor that creates a N * N UnionFindPercolation instance.
+     *
+     * @param N
+     */
+    public UnionFindPercolation(int N) {
+        if (N <= 0) {
+            throw new java.lang.IllegalArgumentException("The grid's "
+                    + "dimensions must be grater than 0.");
+        }
+        colSize = N;
+        uf = new UnionFind(N * N);
+        neighbors = new int[4];
+        flags = new byte[N * N];
+        sites = new boolean[N * N];
+        openSites = 0;
+        percolates = false;
+    }
+
+    /** A constructor that creates a N * N UnionFindPercolation instance in
+     * which site i (row * N + col) is open if bit i of open is set, i.e. if
+     * open[i / 64] has bit i % 64 set. The grid is joined in one parallel
+     * pass, see openAll.
+     *
+     * @param N
+     * @param open
+     */
+    public UnionFindPercolation(int N, long[] open) {
+        this(N);
+        if (open.length < ((long) N * N + 63) / 64) {
+            throw new java.lang.IllegalArgumentException("The bitmap must have a bit for each "
+                    + "of the " + N * N + " sites.");
+        }
+        for (int i = 0; i < sites.length; i += 1) {
+            if ((open[i >>> 6] & (1L << i)) != 0) {
+                sites[i] = true;
+                openSites += 1;
+            }
+        }
+        bulkUnion();
+    }
+
+    private int validate(int row, int col) {
+        if (row < 0 || row >= colSize || col < 0 || col >= colSize) {
+            throw new java.lang.IndexOutOfBoundsException("Row " + row + " and column " + col
+                    + " are not between 0 and " + (colSize - 1));
+        }
+        return row * colSize + col;
+    }
+
+    /** A method that opens a Site if it is not open already.
+     *
+     * @param row
+     * @param col
+     */
+    @Override
+    public void open(int row, int col) {
+        int index = validate(row, col);
+        if (sites[index]) {
+            return;
+        }
+        sites[index] = true;
+        openSites += 1;
+        byte f = 0;
+        if (row == 0) {
+            f |= TOP;
+        }
+        if (row == colSize - 1) {
+            f |= BOTTOM;
+        }
+        int n = 0;
+        if (row > 0 && sites[index - colSize]) {
+            neighbors[n] = index - colSize;
+            n += 1;
+        }
+        if (row < colSize - 1 && sites[index + colSize]) {
+            neighbors[n] = index + colSize;
+            n += 1;
+        }
+        if (col > 0 && sites[index - 1]) {
+            neighbors[n] = index - 1;
+            n += 1;
+        }
+        if (col < colSize - 1 && sites[index + 1]) {
+            neighbors[n] = index + 1;
+            n += 1;
+        }
+        for (int i = 0; i < n; i += 1) {
+            f |= flags[uf.find(neighbors[i])];
+        }
+        if (Metrics.ENABLED) {
+            for (int i = 0; i < n; i += 1) {
+                Metrics.union();
+            }
+        }
+        int root = uf.unionAll(index, neighbors, n);
+        flags[root] = f;
+        if (f == SPANNING) {
+            percolates = true;
+        }
+    }
+
+    /** A method that opens every Site (rows[i], cols[i]). All sites are checked
+     * before any is opened. When the grid is empty and the batch is large,
+     * the sites are only marked open and then joined in one pass over the
+     * grid: row stripes are unioned in parallel, which is safe because every
+     * union inside a stripe only touches nodes of that stripe, and the
+     * stripe borders are merged afterwards. The result is the same as
+     * opening the sites one by one.
+     *
+     * @param rows
+     * @param cols
+     */
+    @Override
+    public void openAll(int[] rows, int[] cols) {
+        if (rows.length != cols.length) {
+            throw new java.lang.IllegalArgumentException("There must be as many rows as columns.");
+        }
+        for (int i = 0; i < rows.length; i += 1) {
+            validate(rows[i], cols[i]);
+        }
+        if (openSites > 0 || (long) rows.length * BULK_FRACTION < sites.length) {
+            for (int i = 0; i < rows.length; i += 1) {
+                open(rows[i], cols[i]);
+            }
+            return;
+        }
+        for (int i = 0; i < rows.length; i += 1) {
+            int index = rows[i] * colSize + cols[i];
+            if (!sites[index]) {
+                sites[index] = true;
+                openSites += 1;
+            }
+        }
+        bulkUnion();
+    }
+
+    private void bulkUnion() {
+        int stripes = Math.min(colSize, 4 * Runtime.getRuntime().availableProcessors());
+        AtomicInteger links = new AtomicInteger();
+        IntStream.range(0, stripes).parallel().forEach(s ->
+                links.addAndGet(unionStripe(stripeStart(s, stripes), stripeStart(s + 1, stripes))));
+        uf.uncount(links.get());
+        for (int s = 1; s < stripes; s += 1) {
+            int row = stripeStart(s, stripes);
+            for (int col = 0; col < colSize; col += 1) {
+                int index = row * colSize + col;
+                if (sites[index] && sites[index - colSize]) {
+                    join(index, index - colSize);
+                }
+            }
+        }
+        for (int index = sites.length - colSize; index < sites.length; index += 1) {
+            if (sites[index] && flags[uf.find(index)] == SPANNING) {
+                percolates = true;
+                return;
+            }
+        }
+    }
+
+    private int stripeStart(int stripe, int stripes) {
+        return (int) ((long) stripe * colSize / stripes);
+    }
+
+    /** Flags and joins the open sites of rows [from, to) with their open left
+     * and upper neighbors inside the stripe, and returns the number of links.
+     */
+    private int unionStripe(int from, int to) {
+        int links = 0;
+        for (int row = from; row < to; row += 1) {
+            for (int col = 0; col < colSize; col += 1) {
+                int index = row * colSize + col;
+                if (!sites[index]) {
+                    continue;
+                }
+                byte f = 0;
+                if (row == 0) {
+                    f |= TOP;
+                }
+                if (row == colSize - 1) {
+                    f |= BOTTOM;
+                }
+                flags[index] = f;
+                if (col > 0 && sites[index - 1]) {
+                    links += joinUncounted(index, index - 1);
+                }
+                if (row > from && sites[index - colSize]) {
+                    links += joinUncounted(index, index - colSize);
+                }
+            }
+        }
+        return links;
+    }
+
+    private int joinUncounted(int p, int q) {
+        int rootP = uf.find(p);
+        int rootQ = uf.find(q);
+        if (rootP == rootQ) {
+            return 0;
+        }
+        byte f = (byte) (flags[rootP] | flags[rootQ]);
+        flags[uf.linkUncounted(rootP, rootQ)] = f;
+        return 1;
+    }
+
+    private void join(int p, int q) {
+        int rootP = uf.find(p);
+        int rootQ = uf.find(q);
+        if (rootP != rootQ) {
+            byte f = (byte) (flags[rootP] | flags[rootQ]);
+            flags[uf.link(rootP, rootQ)] = f;
+        }
+    }
+
+    /** A method that checks if a Site is open.
+     *
+     * @param row
+     * @param col
+     * @return boolean
+     */
+    @Override
+    public boolean isOpen(int row, int col) {
+        return sites[validate(row, col)];
+    }
+
+    /** A method that checks if a Site is full.
+     *
+     * @param row
+     * @param col
+     * @return boolean
+     */
+    @Override
+    public boolean isFull(int row, int col) {
+        int index = validate(row, col);
+        return sites[index] && (flags[uf.find(index)] & TOP) != 0;
+    }
+
+    /** A method that returns the number of open Sites in this UnionFindPercolation instance.
+     *
+     * @return int
+     */
+    @Override
+    public int numberOfOpenSites() {
+        return openSites;
+    }
+
+    /** A method that checks if this UnionFindPercolation instance percolates.
+     *
+     * @return boolean
+     */
+    @Override
+    public boolean percolates() {
+        return percolates;
+    }
+}
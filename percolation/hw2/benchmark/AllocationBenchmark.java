@@ -0,0 +1,88 @@
+/******************************************************************************
+ *  Compilation:  javac AllocationBenchmark.java
+ *  Execution:    java hw2.benchmark.AllocationBenchmark [N] [rounds]
+ *  Dependencies: PercolationFactory.java
+ *
+ *  Measures how many bytes the current thread allocates per call to open,
+ *  isOpen and isFull, for every PercolationFactory type, once the JIT has
+ *  warmed up. Systems are built before measuring, so only the calls
+ *  themselves are counted. Uses the HotSpot per-thread allocation counter.
+ *
+ ******************************************************************************/
+package hw2.benchmark;
+
+import hw2.PercolationFactory;
+import hw2.PercolationSystem;
+import hw2.SitePermutation;
+
+import java.lang.management.ManagementFactory;
+import java.util.SplittableRandom;
+
+public class AllocationBenchmark {
+    private static final int WARMUP_ROUNDS = 5;
+
+    private static long allocatedBytes() {
+        com.sun.management.ThreadMXBean bean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        return bean.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    /** Opens every site of p in the given order, querying each site before
+     * and after, and returns a checksum so the JIT cannot drop the calls.
+     */
+    private static int run(PercolationSystem p, int N, int[] order) {
+        int full = 0;
+        for (int site : order) {
+            int row = site / N;
+            int col = site % N;
+            if (!p.isOpen(row, col)) {
+                p.open(row, col);
+            }
+            if (p.isFull(row, col)) {
+                full += 1;
+            }
+        }
+        return full;
+    }
+
+    public static void main(String[] args) {
+        int N = 200;
+        int rounds = 20;
+        if (args.length > 0) {
+            N = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            rounds = Integer.parseInt(args[1]);
+        }
+        SitePermutation sites = new SitePermutation(N, new SplittableRandom(42));
+        int[] order = new int[N * N];
+        for (int i = 0; i < order.length; i += 1) {
+            order[i] = sites.next();
+        }
+
+        System.out.printf("N = %d, %d rounds, %d opens per round%n", N, rounds, order.length);
+        for (PercolationFactory.Type type : PercolationFactory.Type.values()) {
+            PercolationFactory pf = new PercolationFactory(type);
+            long checksum = 0;
+            for (int i = 0; i < WARMUP_ROUNDS; i += 1) {
+                try (PercolationSystem p = pf.makeSystem(N)) {
+                    checksum += run(p, N, order);
+                }
+            }
+            PercolationSystem[] systems = new PercolationSystem[rounds];
+            for (int i = 0; i < rounds; i += 1) {
+                systems[i] = pf.makeSystem(N);
+            }
+            long before = allocatedBytes();
+            for (PercolationSystem p : systems) {
+                checksum += run(p, N, order);
+            }
+            long bytes = allocatedBytes() - before;
+            for (PercolationSystem p : systems) {
+                p.close();
+            }
+            System.out.printf("%-12s %10.4f bytes/open   (checksum %d)%n", type,
+                    bytes / (double) rounds / order.length, checksum);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/******************************************************************************
+ *  Compilation:  javac DynamicPercolationBenchmark.java
+ *  Execution:    java hw2.benchmark.DynamicPercolationBenchmark [N] [events]
+ *  Dependencies: DynamicPercolation.java UnionFindPercolation.java
+ *
+ *  Replays the same random batch of opens, closes (failures) and percolates
+ *  queries through DynamicPercolation and through the obvious alternative
+ *  of rebuilding a UnionFindPercolation from the open sites at every query,
+ *  checks that both give the same answers, and prints both times.
+ *
+ ******************************************************************************/
+package hw2.benchmark;
+
+import hw2.DynamicPercolation;
+import hw2.UnionFindPercolation;
+
+import java.util.SplittableRandom;
+
+public class DynamicPercolationBenchmark {
+    private static final int OPEN = 0;
+    private static final int CLOSE = 1;
+    private static final int QUERY = 2;
+
+    public static void main(String[] args) {
+        int N = 200;
+        int events = 200_000;
+        if (args.length > 0) {
+            N = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            events = Integer.parseInt(args[1]);
+        }
+
+        // Opens outnumber closes so the grid hovers around the threshold,
+        // and one event in 100 is a query.
+        SplittableRandom rng = new SplittableRandom(7);
+        int[] kind = new int[events];
+        int[] site = new int[events];
+        for (int i = 0; i < events; i += 1) {
+            int r = rng.nextInt(100);
+            kind[i] = r == 0 ? QUERY : r < 60 ? OPEN : CLOSE;
+            site[i] = rng.nextInt(N * N);
+        }
+
+        long start = System.nanoTime();
+        DynamicPercolation dp = new DynamicPercolation(N);
+        int queries = 0;
+        for (int i = 0; i < events; i += 1) {
+            if (kind[i] == OPEN) {
+                dp.open(site[i] / N, site[i] % N);
+            } else if (kind[i] == CLOSE) {
+                dp.close(site[i] / N, site[i] % N);
+            } else {
+                dp.queryPercolates();
+                queries += 1;
+            }
+        }
+        boolean[] offline = dp.solve();
+        long dynamic = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        boolean[] open = new boolean[N * N];
+        boolean[] rebuilt = new boolean[queries];
+        int q = 0;
+        for (int i = 0; i < events; i += 1) {
+            if (kind[i] == OPEN) {
+                open[site[i]] = true;
+            } else if (kind[i] == CLOSE) {
+                open[site[i]] = false;
+            } else {
+                UnionFindPercolation p = new UnionFindPercolation(N);
+                for (int s = 0; s < N * N; s += 1) {
+                    if (open[s]) {
+                        p.open(s / N, s % N);
+                    }
+                }
+                rebuilt[q] = p.percolates();
+                q += 1;
+            }
+        }
+        long rebuild = System.nanoTime() - start;
+
+        for (int i = 0; i < queries; i += 1) {
+            if (offline[i] != rebuilt[i]) {
+                throw new java.lang.IllegalStateException("Query " + i + " disagrees.");
+            }
+        }
+        System.out.printf("N = %d, %d events, %d queries%n", N, events, queries);
+        System.out.printf("%-24s %10.1f ms%n", "DynamicPercolation", dynamic / 1e6);
+        System.out.printf("%-24s %10.1f ms%n", "rebuild per query", rebuild / 1e6);
+    }
+}
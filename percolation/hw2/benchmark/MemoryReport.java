@@ -0,0 +1,85 @@
+/******************************************************************************
+ *  Compilation:  javac MemoryReport.java
+ *  Execution:    java -Xmx4g hw2.benchmark.MemoryReport [N1 N2 ...]
+ *  Dependencies: PercolationFactory.java
+ *
+ *  Prints the estimated heap footprint of one percolation system per
+ *  PercolationFactory type for each grid size, next to the heap growth
+ *  actually measured after building one (or "OOM" if it does not fit).
+ *
+ ******************************************************************************/
+package hw2.benchmark;
+
+import hw2.PercolationFactory;
+import hw2.PercolationSystem;
+
+public class MemoryReport {
+    private static final int[] DEFAULT_SIZES = {1000, 5000, 10000, 20000};
+
+    /** Returns the estimated number of bytes of the arrays behind a
+     * percolation system of the given type and size.
+     */
+    private static long estimate(PercolationFactory.Type type, int N) {
+        long sites = (long) N * N;
+        switch (type) {
+            case UNION_FIND:
+                // UnionFind int[], byte[] flags, boolean[] sites
+                return 4 * sites + sites + sites;
+            case COMPACT:
+                // UnionFind int[], long[] bitset
+                return 4 * sites + 8 * ((sites + 63) >>> 6);
+            case MAPPED:
+                // everything is off-heap
+                return 0;
+            case CLUSTER:
+                // ClusterUnionFind int[] nodes, sizes and histogram, boolean[] sites
+                return 4 * sites + 4 * sites + 4 * (sites + 1) + sites;
+            default:
+                // two WeightedQuickUnionUFs with int[] parent and size, boolean[] sites
+                return 8 * (sites + 2) + 8 * (sites + 1) + sites + 1;
+        }
+    }
+
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        for (int i = 0; i < 3; i += 1) {
+            System.gc();
+        }
+        return rt.totalMemory() - rt.freeMemory();
+    }
+
+    private static String measure(PercolationFactory.Type type, int N) {
+        long before = usedHeap();
+        try {
+            try (PercolationSystem p = new PercolationFactory(type).makeSystem(N)) {
+                long after = usedHeap();
+                p.open(0, 0);
+                return mb(after - before);
+            }
+        } catch (OutOfMemoryError e) {
+            return "OOM";
+        }
+    }
+
+    private static String mb(long bytes) {
+        return String.format("%.1f MB", bytes / (1024.0 * 1024.0));
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = DEFAULT_SIZES;
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i += 1) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.printf("max heap %s%n", mb(Runtime.getRuntime().maxMemory()));
+        System.out.printf("%-8s %-12s %14s %14s%n", "N", "type", "estimated", "measured");
+        for (int N : sizes) {
+            for (PercolationFactory.Type type : PercolationFactory.Type.values()) {
+                System.out.printf("%-8d %-12s %14s %14s%n", N, type,
+                        mb(estimate(type, N)), measure(type, N));
+            }
+        }
+    }
+}
@@ -0,0 +1,237 @@
+/******************************************************************************
+ *  Compilation:  javac PercolationBenchmark.java
+ *  Execution:    java hw2.benchmark.PercolationBenchmark results.json [maxN] [iterations]
+ *  Dependencies: PercolationFactory.java PercolationStats.java SitePermutation.java
+ *
+ *  Benchmarks every PercolationFactory type for N = 64, 128, ... up to maxN
+ *  (default 4096) and writes the results to a JSON file, one result per line
+ *  so that two runs can be compared with diff. For each type and N it
+ *  measures
+ *
+ *    - open: opens per second, opening every site of fresh systems in
+ *      random order.
+ *    - isFull: nanoseconds per call, on random sites of a system opened
+ *      up to the percolation threshold.
+ *    - percolates: nanoseconds per call on the same system.
+ *    - trial: milliseconds per PercolationStats trial (permutation
+ *      sampling, one thread).
+ *
+ *  Each benchmark runs WARMUP_ITERATIONS untimed iterations so the JIT can
+ *  compile the code under test, then the given number of timed iterations
+ *  (default 5). The JSON records every sample along with the mean, standard
+ *  deviation, minimum and maximum. Systems are built outside the timed
+ *  section, and every result feeds a checksum so the JIT cannot drop calls.
+ *
+ ******************************************************************************/
+package hw2.benchmark;
+
+import hw2.PercolationFactory;
+import hw2.PercolationStats;
+import hw2.PercolationSystem;
+import hw2.RunningStats;
+import hw2.SitePermutation;
+
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+public class PercolationBenchmark {
+    private static final int MIN_N = 64;
+    private static final int WARMUP_ITERATIONS = 2;
+    /** Calls per timed iteration of the isFull and percolates benchmarks. */
+    private static final int QUERIES = 1 << 20;
+    /** Sites opened per timed iteration of the open and trial benchmarks, roughly. */
+    private static final long SITES_PER_ITERATION = 1 << 22;
+    private static final long SEED = 42;
+
+    private static long checksum;
+
+    /** Runs one timed iteration and returns its sample. */
+    private interface Measurement {
+        double sample();
+    }
+
+    private static int[] order(int N, SplittableRandom rng) {
+        SitePermutation sites = new SitePermutation(N, rng);
+        int[] order = new int[N * N];
+        for (int i = 0; i < order.length; i += 1) {
+            order[i] = sites.next();
+        }
+        return order;
+    }
+
+    /* Returns opens per second for opening every site of the given number of new systems. */
+    private static double openThroughput(PercolationFactory pf, int N, int[] order, int systems) {
+        PercolationSystem[] ps = new PercolationSystem[systems];
+        for (int i = 0; i < systems; i += 1) {
+            ps[i] = pf.makeSystem(N);
+        }
+        long start = System.nanoTime();
+        for (PercolationSystem p : ps) {
+            for (int site : order) {
+                p.open(site / N, site % N);
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        for (PercolationSystem p : ps) {
+            checksum += p.numberOfOpenSites();
+            p.close();
+        }
+        return (double) systems * order.length / (elapsed / 1e9);
+    }
+
+    /* Opens sites of a new system in order until it percolates. */
+    private static PercolationSystem atThreshold(PercolationFactory pf, int N, int[] order) {
+        PercolationSystem p = pf.makeSystem(N);
+        for (int i = 0; !p.percolates(); i += 1) {
+            p.open(order[i] / N, order[i] % N);
+        }
+        return p;
+    }
+
+    /* Returns nanoseconds per isFull call on the given sites. */
+    private static double isFullLatency(PercolationSystem p, int N, int[] queries) {
+        int full = 0;
+        long start = System.nanoTime();
+        for (int site : queries) {
+            if (p.isFull(site / N, site % N)) {
+                full += 1;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        checksum += full;
+        return elapsed / (double) queries.length;
+    }
+
+    /* Returns nanoseconds per percolates call. */
+    private static double percolatesLatency(PercolationSystem p) {
+        int percolating = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i += 1) {
+            if (p.percolates()) {
+                percolating += 1;
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        checksum += percolating;
+        return elapsed / (double) QUERIES;
+    }
+
+    /* Returns milliseconds per threshold trial, averaged over trials trials. */
+    private static double trialTime(PercolationFactory pf, int N, int trials, long seed) {
+        long start = System.nanoTime();
+        PercolationStats stats = new PercolationStats(N, trials, pf, seed, 1,
+                PercolationStats.Sampling.PERMUTATION);
+        long elapsed = System.nanoTime() - start;
+        checksum += Double.doubleToLongBits(stats.mean());
+        return elapsed / 1e6 / trials;
+    }
+
+    private static String run(String benchmark, PercolationFactory.Type type, int N, String unit,
+                              int iterations, Measurement m) {
+        for (int i = 0; i < WARMUP_ITERATIONS; i += 1) {
+            m.sample();
+        }
+        double[] samples = new double[iterations];
+        RunningStats stats = new RunningStats();
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < iterations; i += 1) {
+            samples[i] = m.sample();
+            stats.add(samples[i]);
+            min = Math.min(min, samples[i]);
+            max = Math.max(max, samples[i]);
+        }
+        System.out.printf("%-10s %-12s %5d %14.3f %-6s (+- %.3f)%n", benchmark, type, N,
+                stats.mean(), unit, iterations > 1 ? stats.stddev() : 0.0);
+
+        StringBuilder json = new StringBuilder();
+        json.append(String.format(Locale.ROOT, "{\"benchmark\": \"%s\", \"type\": \"%s\", "
+                + "\"N\": %d, \"unit\": \"%s\", \"mean\": %s, \"stddev\": %s, \"min\": %s, "
+                + "\"max\": %s, \"samples\": [", benchmark, type, N, unit, number(stats.mean()),
+                number(iterations > 1 ? stats.stddev() : 0.0), number(min), number(max)));
+        for (int i = 0; i < samples.length; i += 1) {
+            if (i > 0) {
+                json.append(", ");
+            }
+            json.append(number(samples[i]));
+        }
+        return json.append("]}").toString();
+    }
+
+    /** Formats x as a JSON number, or null since JSON has no NaN or Infinity. */
+    private static String number(double x) {
+        if (!Double.isFinite(x)) {
+            return "null";
+        }
+        return String.format(Locale.ROOT, "%.6g", x);
+    }
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+    }
+
+    public static void main(String[] args) throws FileNotFoundException {
+        String output = args[0];
+        int maxN = 4096;
+        int iterations = 5;
+        if (args.length > 1) {
+            maxN = Integer.parseInt(args[1]);
+        }
+        if (args.length > 2) {
+            iterations = Integer.parseInt(args[2]);
+        }
+        if (maxN < MIN_N || iterations <= 0) {
+            throw new java.lang.IllegalArgumentException("maxN must be at least " + MIN_N
+                    + " and iterations greater than 0.");
+        }
+
+        List<String> results = new ArrayList<>();
+        for (int N = MIN_N; N <= maxN; N *= 2) {
+            SplittableRandom rng = new SplittableRandom(SEED + N);
+            int[] order = order(N, rng);
+            int[] queries = new int[QUERIES];
+            for (int i = 0; i < QUERIES; i += 1) {
+                queries[i] = rng.nextInt(N * N);
+            }
+            int repeats = (int) Math.max(1, SITES_PER_ITERATION / ((long) N * N));
+            for (PercolationFactory.Type type : PercolationFactory.Type.values()) {
+                PercolationFactory pf = new PercolationFactory(type);
+                int n = N;
+                results.add(run("open", type, N, "ops/s", iterations,
+                        () -> openThroughput(pf, n, order, repeats)));
+                try (PercolationSystem p = atThreshold(pf, N, order)) {
+                    results.add(run("isFull", type, N, "ns/op", iterations,
+                            () -> isFullLatency(p, n, queries)));
+                    results.add(run("percolates", type, N, "ns/op", iterations,
+                            () -> percolatesLatency(p)));
+                }
+                long[] seed = {SEED};
+                results.add(run("trial", type, N, "ms/op", iterations,
+                        () -> trialTime(pf, n, repeats, seed[0]++)));
+            }
+        }
+
+        try (PrintWriter out = new PrintWriter(output)) {
+            out.println("{");
+            out.println("  \"timestamp\": " + quote(Instant.now().toString()) + ",");
+            out.println("  \"java\": " + quote(System.getProperty("java.version")) + ",");
+            out.println("  \"vm\": " + quote(System.getProperty("java.vm.name")) + ",");
+            out.println("  \"processors\": " + Runtime.getRuntime().availableProcessors() + ",");
+            out.println("  \"warmupIterations\": " + WARMUP_ITERATIONS + ",");
+            out.println("  \"iterations\": " + iterations + ",");
+            out.println("  \"results\": [");
+            for (int i = 0; i < results.size(); i += 1) {
+                out.println("    " + results.get(i) + (i + 1 < results.size() ? "," : ""));
+            }
+            out.println("  ]");
+            out.println("}");
+        }
+        System.out.printf("%d results written to %s (checksum %d)%n", results.size(), output,
+                checksum);
+    }
+}
@@ -0,0 +1,127 @@
+/******************************************************************************
+ *  Compilation:  javac UnionFindBenchmark.java
+ *  Execution:    java hw2.benchmark.UnionFindBenchmark [N] [rounds]
+ *  Dependencies: UnionFind.java
+ *
+ *  Times hw2.UnionFind against algs4's WeightedQuickUnionUF on the same
+ *  workload: opening the sites of an N-by-N grid in random order and
+ *  joining every newly opened site with its open neighbors, then asking
+ *  whether the first and last rows are connected through each column.
+ *
+ ******************************************************************************/
+package hw2.benchmark;
+
+import edu.princeton.cs.algs4.WeightedQuickUnionUF;
+import hw2.SitePermutation;
+import hw2.UnionFind;
+
+import java.util.SplittableRandom;
+
+public class UnionFindBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+
+    private static int[] openingOrder(int N, long seed) {
+        SitePermutation sites = new SitePermutation(N, new SplittableRandom(seed));
+        int[] order = new int[N * N];
+        for (int i = 0; i < order.length; i += 1) {
+            order[i] = sites.next();
+        }
+        return order;
+    }
+
+    private static long runProjectOwned(int N, int[] order) {
+        UnionFind uf = new UnionFind(N * N);
+        boolean[] open = new boolean[N * N];
+        int[] neighbors = new int[4];
+        for (int site : order) {
+            int n = 0;
+            int row = site / N;
+            int col = site % N;
+            if (row > 0 && open[site - N]) {
+                neighbors[n++] = site - N;
+            }
+            if (row < N - 1 && open[site + N]) {
+                neighbors[n++] = site + N;
+            }
+            if (col > 0 && open[site - 1]) {
+                neighbors[n++] = site - 1;
+            }
+            if (col < N - 1 && open[site + 1]) {
+                neighbors[n++] = site + 1;
+            }
+            open[site] = true;
+            uf.unionAll(site, neighbors, n);
+        }
+        long hits = 0;
+        for (int col = 0; col < N; col += 1) {
+            if (uf.connected(col, N * (N - 1) + col)) {
+                hits += 1;
+            }
+        }
+        return hits + uf.count();
+    }
+
+    private static long runAlgs4(int N, int[] order) {
+        WeightedQuickUnionUF uf = new WeightedQuickUnionUF(N * N);
+        boolean[] open = new boolean[N * N];
+        for (int site : order) {
+            int row = site / N;
+            int col = site % N;
+            if (row > 0 && open[site - N]) {
+                uf.union(site, site - N);
+            }
+            if (row < N - 1 && open[site + N]) {
+                uf.union(site, site + N);
+            }
+            if (col > 0 && open[site - 1]) {
+                uf.union(site, site - 1);
+            }
+            if (col < N - 1 && open[site + 1]) {
+                uf.union(site, site + 1);
+            }
+            open[site] = true;
+        }
+        long hits = 0;
+        for (int col = 0; col < N; col += 1) {
+            if (uf.connected(col, N * (N - 1) + col)) {
+                hits += 1;
+            }
+        }
+        return hits + uf.count();
+    }
+
+    public static void main(String[] args) {
+        int N = 1000;
+        int rounds = 10;
+        if (args.length > 0) {
+            N = Integer.parseInt(args[0]);
+        }
+        if (args.length > 1) {
+            rounds = Integer.parseInt(args[1]);
+        }
+        int[] order = openingOrder(N, 42);
+
+        long checksum = 0;
+        for (int i = 0; i < WARMUP_ROUNDS; i += 1) {
+            checksum += runProjectOwned(N, order) - runAlgs4(N, order);
+        }
+        long projectOwned = 0;
+        long algs4 = 0;
+        for (int i = 0; i < rounds; i += 1) {
+            long start = System.nanoTime();
+            checksum += runProjectOwned(N, order);
+            projectOwned += System.nanoTime() - start;
+            start = System.nanoTime();
+            checksum -= runAlgs4(N, order);
+            algs4 += System.nanoTime() - start;
+        }
+        if (checksum != 0) {
+            throw new java.lang.IllegalStateException("The two union-finds disagree.");
+        }
+        System.out.printf("N = %d, %d rounds%n", N, rounds);
+        System.out.printf("%-28s %10.3f ms/round%n", "hw2.UnionFind",
+                projectOwned / 1e6 / rounds);
+        System.out.printf("%-28s %10.3f ms/round%n", "algs4.WeightedQuickUnionUF",
+                algs4 / 1e6 / rounds);
+    }
+}
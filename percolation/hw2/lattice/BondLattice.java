@@ -0,0 +1,86 @@
+package hw2.lattice;
+
+/**
+ * Bond percolation on a site lattice: the elements are the edges between
+ * neighboring sites and the nodes are the sites, which are always present.
+ * The end points of every bond are computed once, up front, into a single
+ * table. Bond percolation threshold 1/2 on the square lattice.
+ */
+public class BondLattice implements Lattice {
+    private final Lattice sites;
+    private final int[] ends;
+
+    /** Creates the bond lattice over the sites of the given site lattice.
+     *
+     * @param sites
+     */
+    public BondLattice(Lattice sites) {
+        if (sites.bonds()) {
+            throw new java.lang.IllegalArgumentException("The underlying lattice must be "
+                    + "a site lattice.");
+        }
+        this.sites = sites;
+        int[] neighbors = new int[sites.maxNeighbors()];
+        long count = 0;
+        for (int v = 0; v < sites.nodes(); v += 1) {
+            int n = sites.neighbors(v, neighbors);
+            for (int i = 0; i < n; i += 1) {
+                if (neighbors[i] > v) {
+                    count += 1;
+                }
+            }
+        }
+        if (2 * count > Integer.MAX_VALUE) {
+            throw new java.lang.IllegalArgumentException("The lattice has too many bonds.");
+        }
+        ends = new int[(int) (2 * count)];
+        int b = 0;
+        for (int v = 0; v < sites.nodes(); v += 1) {
+            int n = sites.neighbors(v, neighbors);
+            for (int i = 0; i < n; i += 1) {
+                if (neighbors[i] > v) {
+                    ends[b] = v;
+                    ends[b + 1] = neighbors[i];
+                    b += 2;
+                }
+            }
+        }
+    }
+
+    @Override
+    public int elements() {
+        return ends.length / 2;
+    }
+
+    @Override
+    public int nodes() {
+        return sites.nodes();
+    }
+
+    @Override
+    public boolean bonds() {
+        return true;
+    }
+
+    @Override
+    public int neighbors(int e, int[] out) {
+        out[0] = ends[2 * e];
+        out[1] = ends[2 * e + 1];
+        return 2;
+    }
+
+    @Override
+    public int maxNeighbors() {
+        return 2;
+    }
+
+    @Override
+    public boolean isTop(int v) {
+        return sites.isTop(v);
+    }
+
+    @Override
+    public boolean isBottom(int v) {
+        return sites.isBottom(v);
+    }
+}
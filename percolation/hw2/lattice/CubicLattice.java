@@ -0,0 +1,77 @@
+package hw2.lattice;
+
+/**
+ * The L-by-L-by-L simple cubic lattice, with site (layer, row, col) at
+ * index (layer * L + row) * L + col. Each site touches the six sites next
+ * to it along the axes, and the system percolates from the first layer to
+ * the last. Site percolation threshold about 0.3116.
+ */
+public class CubicLattice implements Lattice {
+    private static final int[] D_LAYER = {-1, 1, 0, 0, 0, 0};
+    private static final int[] D_ROW = {0, 0, -1, 1, 0, 0};
+    private static final int[] D_COL = {0, 0, 0, 0, -1, 1};
+
+    private final int size;
+    private final int layer;
+
+    public CubicLattice(int L) {
+        if (L <= 0) {
+            throw new java.lang.IllegalArgumentException("The lattice's "
+                    + "dimensions must be greater than 0.");
+        }
+        if ((long) L * L * L > Integer.MAX_VALUE) {
+            throw new java.lang.IllegalArgumentException("An " + L + " by " + L + " by " + L
+                    + " lattice has too many sites.");
+        }
+        size = L;
+        layer = L * L;
+    }
+
+    @Override
+    public int elements() {
+        return layer * size;
+    }
+
+    @Override
+    public int nodes() {
+        return layer * size;
+    }
+
+    @Override
+    public boolean bonds() {
+        return false;
+    }
+
+    @Override
+    public int neighbors(int e, int[] out) {
+        int z = e / layer;
+        int row = (e / size) % size;
+        int col = e % size;
+        int n = 0;
+        for (int i = 0; i < D_LAYER.length; i += 1) {
+            int lz = z + D_LAYER[i];
+            int r = row + D_ROW[i];
+            int c = col + D_COL[i];
+            if (lz >= 0 && lz < size && r >= 0 && r < size && c >= 0 && c < size) {
+                out[n] = (lz * size + r) * size + c;
+                n += 1;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int maxNeighbors() {
+        return D_LAYER.length;
+    }
+
+    @Override
+    public boolean isTop(int v) {
+        return v < layer;
+    }
+
+    @Override
+    public boolean isBottom(int v) {
+        return v >= layer * (size - 1);
+    }
+}
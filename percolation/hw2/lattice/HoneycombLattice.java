@@ -0,0 +1,17 @@
+package hw2.lattice;
+
+/**
+ * The L-by-L honeycomb (hexagonal) lattice, drawn as a brick wall: each
+ * site touches its left and right neighbors, plus the site below it when
+ * row + col is even or the site above it when row + col is odd, for three
+ * neighbors in all. Site percolation threshold about 0.6970.
+ */
+public class HoneycombLattice extends PlanarLattice {
+    private static final int[] EVEN_ROW = {0, 0, 1};
+    private static final int[] ODD_ROW = {0, 0, -1};
+    private static final int[] D_COL = {-1, 1, 0};
+
+    public HoneycombLattice(int L) {
+        super(L, new int[][] {EVEN_ROW, ODD_ROW}, new int[][] {D_COL, D_COL});
+    }
+}
@@ -0,0 +1,27 @@
+package hw2.lattice;
+
+/**
+ * A finite lattice on which percolation can be studied. Elements are the
+ * things that get opened: sites for site percolation, bonds for bond
+ * percolation. Nodes are what the union-find joins: the sites themselves
+ * for site percolation, the end points of the bonds for bond percolation.
+ * The system percolates when an open path joins a node on the top face to
+ * a node on the bottom face.
+ */
+public interface Lattice {
+    /* Returns the number of elements that can be opened. */
+    int elements();
+    /* Returns the number of nodes; equal to elements() for site percolation. */
+    int nodes();
+    /* Returns true if elements are bonds, which join their end nodes as soon as they open. */
+    boolean bonds();
+    /* Writes the neighboring sites of site e (or the two end nodes of bond e) into out,
+       which must hold at least maxNeighbors() entries, and returns how many were written. */
+    int neighbors(int e, int[] out);
+    /* Returns the largest number of entries neighbors can write. */
+    int maxNeighbors();
+    /* Returns true if node v lies on the top face. */
+    boolean isTop(int v);
+    /* Returns true if node v lies on the bottom face. */
+    boolean isBottom(int v);
+}
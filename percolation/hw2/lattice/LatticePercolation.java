@@ -0,0 +1,157 @@
+package hw2.lattice;
+
+import hw2.SitePermutation;
+import hw2.UnionFind;
+
+import java.util.SplittableRandom;
+
+/**
+ * Site or bond percolation on any Lattice. Like hw2.CompactPercolation it
+ * keeps whether a component touches the top or the bottom face in the tag
+ * bits of its UnionFind root, so percolates() is a field read.
+ */
+public class LatticePercolation {
+    private static final int TOP = 1;
+    private static final int BOTTOM = 2;
+    private static final int SPANNING = TOP | BOTTOM;
+
+    private Lattice lattice;
+    private UnionFind uf;
+    private boolean[] open;
+    private int[] neighbors;
+    private int openElements;
+    private boolean percolates;
+
+    /** Creates a LatticePercolation with every element of lattice blocked.
+     *
+     * @param lattice
+     */
+    public LatticePercolation(Lattice lattice) {
+        this.lattice = lattice;
+        uf = new UnionFind(lattice.nodes());
+        open = new boolean[lattice.elements()];
+        neighbors = new int[lattice.maxNeighbors()];
+        openElements = 0;
+        percolates = false;
+        if (lattice.bonds()) {
+            // Bond lattice nodes are always present, so their faces count from the start.
+            for (int v = 0; v < lattice.nodes(); v += 1) {
+                if (uf.addTags(v, faces(v)) == SPANNING) {
+                    percolates = true;
+                }
+            }
+        }
+    }
+
+    private int faces(int v) {
+        int f = 0;
+        if (lattice.isTop(v)) {
+            f |= TOP;
+        }
+        if (lattice.isBottom(v)) {
+            f |= BOTTOM;
+        }
+        return f;
+    }
+
+    private void validate(int e) {
+        if (e < 0 || e >= open.length) {
+            throw new java.lang.IndexOutOfBoundsException("Element " + e
+                    + " is not between 0 and " + (open.length - 1));
+        }
+    }
+
+    /** Opens element e if it is not open already.
+     *
+     * @param e
+     */
+    public void open(int e) {
+        validate(e);
+        if (open[e]) {
+            return;
+        }
+        open[e] = true;
+        openElements += 1;
+        int n = lattice.neighbors(e, neighbors);
+        int root;
+        if (lattice.bonds()) {
+            root = uf.union(neighbors[0], neighbors[1]);
+        } else {
+            int m = 0;
+            for (int i = 0; i < n; i += 1) {
+                if (open[neighbors[i]]) {
+                    neighbors[m] = neighbors[i];
+                    m += 1;
+                }
+            }
+            root = uf.unionAll(e, neighbors, m);
+            uf.addTags(root, faces(e));
+        }
+        if (uf.tags(root) == SPANNING) {
+            percolates = true;
+        }
+    }
+
+    /** Returns whether element e is open.
+     *
+     * @param e
+     * @return boolean
+     */
+    public boolean isOpen(int e) {
+        validate(e);
+        return open[e];
+    }
+
+    /** Returns whether node v is connected to the top face through open
+     * elements. For site percolation v must itself be open.
+     *
+     * @param v
+     * @return boolean
+     */
+    public boolean isFull(int v) {
+        if (v < 0 || v >= uf.size()) {
+            throw new java.lang.IndexOutOfBoundsException("Node " + v
+                    + " is not between 0 and " + (uf.size() - 1));
+        }
+        if (!lattice.bonds() && !open[v]) {
+            return false;
+        }
+        return (uf.tags(uf.find(v)) & TOP) != 0;
+    }
+
+    /** Returns the number of open elements.
+     *
+     * @return int
+     */
+    public int numberOfOpenElements() {
+        return openElements;
+    }
+
+    /** Returns whether the top face is connected to the bottom face.
+     *
+     * @return boolean
+     */
+    public boolean percolates() {
+        return percolates;
+    }
+
+    /** Opens the elements of lattice in random order until it percolates and
+     * returns the fraction of elements that were open at that point.
+     *
+     * @param lattice
+     * @param rng
+     * @return double
+     */
+    public static double threshold(Lattice lattice, SplittableRandom rng) {
+        LatticePercolation p = new LatticePercolation(lattice);
+        SitePermutation order = SitePermutation.ofSize(lattice.elements(), rng);
+        while (!p.percolates() && order.hasNext()) {
+            p.open(order.next());
+        }
+        if (!p.percolates()) {
+            throw new java.lang.IllegalArgumentException("The lattice does not percolate "
+                    + "even with every element open.");
+        }
+        return p.numberOfOpenElements() / (double) lattice.elements();
+    }
+}
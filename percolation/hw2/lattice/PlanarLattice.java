@@ -0,0 +1,94 @@
+package hw2.lattice;
+
+/**
+ * A site lattice laid out on an L-by-L grid of rows and columns, with site
+ * (row, col) at index row * L + col. The neighbors of a site are given by
+ * precomputed row and column offset tables, one pair of tables for sites
+ * where row + col is even and one for sites where it is odd, so lattices
+ * whose neighborhoods alternate (like the honeycomb) need no special code.
+ */
+public abstract class PlanarLattice implements Lattice {
+    private final int size;
+    private final int[][] dRow;
+    private final int[][] dCol;
+    private final int maxNeighbors;
+
+    /** Creates an L-by-L lattice. dRow[parity] and dCol[parity] are the
+     * offsets of the neighbors of a site whose (row + col) % 2 is parity.
+     *
+     * @param L
+     * @param dRow
+     * @param dCol
+     */
+    protected PlanarLattice(int L, int[][] dRow, int[][] dCol) {
+        if (L <= 0) {
+            throw new java.lang.IllegalArgumentException("The lattice's "
+                    + "dimensions must be greater than 0.");
+        }
+        if ((long) L * L > Integer.MAX_VALUE) {
+            throw new java.lang.IllegalArgumentException("An " + L + " by " + L
+                    + " lattice has too many sites.");
+        }
+        size = L;
+        this.dRow = dRow;
+        this.dCol = dCol;
+        maxNeighbors = Math.max(dRow[0].length, dRow[1].length);
+    }
+
+    /** Returns the number of rows (and columns).
+     *
+     * @return int
+     */
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int elements() {
+        return size * size;
+    }
+
+    @Override
+    public int nodes() {
+        return size * size;
+    }
+
+    @Override
+    public boolean bonds() {
+        return false;
+    }
+
+    @Override
+    public int neighbors(int e, int[] out) {
+        int row = e / size;
+        int col = e % size;
+        int parity = (row + col) & 1;
+        int[] rows = dRow[parity];
+        int[] cols = dCol[parity];
+        int n = 0;
+        for (int i = 0; i < rows.length; i += 1) {
+            int r = row + rows[i];
+            int c = col + cols[i];
+            if (r >= 0 && r < size && c >= 0 && c < size) {
+                out[n] = r * size + c;
+                n += 1;
+            }
+        }
+        return n;
+    }
+
+    @Override
+    public int maxNeighbors() {
+        return maxNeighbors;
+    }
+
+    @Override
+    public boolean isTop(int v) {
+        return v < size;
+    }
+
+    @Override
+    public boolean isBottom(int v) {
+        return v >= size * (size - 1);
+    }
+}
@@ -0,0 +1,14 @@
+package hw2.lattice;
+
+/**
+ * The L-by-L square lattice, where each site touches the sites above,
+ * below, left and right of it. Site percolation threshold about 0.5927.
+ */
+public class SquareLattice extends PlanarLattice {
+    private static final int[] D_ROW = {-1, 1, 0, 0};
+    private static final int[] D_COL = {0, 0, -1, 1};
+
+    public SquareLattice(int L) {
+        super(L, new int[][] {D_ROW, D_ROW}, new int[][] {D_COL, D_COL});
+    }
+}
@@ -0,0 +1,15 @@
+package hw2.lattice;
+
+/**
+ * The L-by-L triangular lattice, drawn as a square grid with one extra
+ * diagonal: each site also touches the sites up-right and down-left of it,
+ * for six neighbors in all. Site percolation threshold 1/2.
+ */
+public class TriangularLattice extends PlanarLattice {
+    private static final int[] D_ROW = {-1, 1, 0, 0, -1, 1};
+    private static final int[] D_COL = {0, 0, -1, 1, 1, -1};
+
+    public TriangularLattice(int L) {
+        super(L, new int[][] {D_ROW, D_ROW}, new int[][] {D_COL, D_COL});
+    }
+}
@@ -0,0 +1,53 @@
+package hw2.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/** A MetricsSink that commits every trial as a JDK Flight Recorder event
+ * named hw2.PercolationTrial, so trials show up next to GC and JIT activity
+ * in a recording started with -XX:StartFlightRecording. Events cost almost
+ * nothing when no recording is running.
+ */
+public class JfrMetricsSink implements MetricsSink {
+    @Name("hw2.PercolationTrial")
+    @Label("Percolation Trial")
+    @Category("Percolation")
+    @Description("One percolation threshold trial")
+    static class TrialEvent extends Event {
+        @Label("Grid Size")
+        int N;
+        @Label("Opens")
+        long opens;
+        @Label("Rejected Samples")
+        long rejected;
+        @Label("Unions")
+        long unions;
+        @Label("Finds")
+        long finds;
+        @Label("Find Steps")
+        long findSteps;
+        @Label("Wall Time")
+        @Timespan(Timespan.NANOSECONDS)
+        long wallTime;
+    }
+
+    @Override
+    public void record(TrialRecord trial) {
+        TrialEvent event = new TrialEvent();
+        if (!event.isEnabled()) {
+            return;
+        }
+        event.N = trial.N();
+        event.opens = trial.opens();
+        event.rejected = trial.rejected();
+        event.unions = trial.unions();
+        event.finds = trial.finds();
+        event.findSteps = trial.findSteps();
+        event.wallTime = trial.nanos();
+        event.commit();
+    }
+}
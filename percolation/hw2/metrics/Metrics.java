@@ -0,0 +1,86 @@
+package hw2.metrics;
+
+/** Optional counters for percolation trials. Instrumentation is switched on
+ * by starting the JVM with -Dhw2.metrics=true. ENABLED is a static final
+ * constant, so when it is false the JIT folds every guarded hook away and
+ * the instrumented code runs exactly as before.
+ *
+ * Each trial runs on a single thread, so counts are kept per thread between
+ * startTrial and endTrial and handed to the sink as one TrialRecord. The
+ * default sink is an in-process MetricsRegistry; see setSink.
+ */
+public final class Metrics {
+    /** Whether the hooks record anything; read once when the class loads. */
+    public static final boolean ENABLED = Boolean.getBoolean("hw2.metrics");
+
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(Counters::new);
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+    private static volatile MetricsSink sink = REGISTRY;
+
+    private static class Counters {
+        private long rejected;
+        private long unions;
+        private long finds;
+        private long findSteps;
+        private long start;
+    }
+
+    private Metrics() {
+    }
+
+    /** Returns the default in-process registry. */
+    public static MetricsRegistry registry() {
+        return REGISTRY;
+    }
+
+    /** Sends completed trials to sink instead of the current sink.
+     *
+     * @param sink
+     */
+    public static void setSink(MetricsSink sink) {
+        if (sink == null) {
+            throw new java.lang.IllegalArgumentException("The sink must not be null.");
+        }
+        Metrics.sink = sink;
+    }
+
+    /** Resets the current thread's counters and starts the trial clock. */
+    public static void startTrial() {
+        Counters c = COUNTERS.get();
+        c.rejected = 0;
+        c.unions = 0;
+        c.finds = 0;
+        c.findSteps = 0;
+        c.start = System.nanoTime();
+    }
+
+    /** Stops the trial clock and records the current thread's trial on an
+     * N-by-N grid that opened the given number of sites.
+     *
+     * @param N
+     * @param opens
+     */
+    public static void endTrial(int N, long opens) {
+        long nanos = System.nanoTime();
+        Counters c = COUNTERS.get();
+        sink.record(new TrialRecord(N, opens, c.rejected, c.unions, c.finds, c.findSteps,
+                nanos - c.start));
+    }
+
+    /** Counts samples drawn for sites that were already open. */
+    public static void rejected(long samples) {
+        COUNTERS.get().rejected += samples;
+    }
+
+    /** Counts one union call. */
+    public static void union() {
+        COUNTERS.get().unions += 1;
+    }
+
+    /** Counts one find that followed the given number of parent links. */
+    public static void find(int steps) {
+        Counters c = COUNTERS.get();
+        c.finds += 1;
+        c.findSteps += steps;
+    }
+}
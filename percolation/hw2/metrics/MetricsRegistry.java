@@ -0,0 +1,115 @@
+package hw2.metrics;
+
+import java.io.PrintStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/** A MetricsSink that keeps totals of every counter and, for each grid size,
+ * a histogram of trial wall times in power-of-two microsecond buckets.
+ */
+public class MetricsRegistry implements MetricsSink {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder trials = new LongAdder();
+    private final LongAdder opens = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder unions = new LongAdder();
+    private final LongAdder finds = new LongAdder();
+    private final LongAdder findSteps = new LongAdder();
+    private final Map<Integer, AtomicLongArray> wallTimes = new ConcurrentSkipListMap<>();
+
+    @Override
+    public void record(TrialRecord trial) {
+        trials.increment();
+        opens.add(trial.opens());
+        rejected.add(trial.rejected());
+        unions.add(trial.unions());
+        finds.add(trial.finds());
+        findSteps.add(trial.findSteps());
+        AtomicLongArray histogram = wallTimes.computeIfAbsent(trial.N(),
+                n -> new AtomicLongArray(BUCKETS));
+        histogram.incrementAndGet(bucket(trial.nanos()));
+    }
+
+    /* Bucket b holds times of at least 2^(b - 1) and less than 2^b microseconds. */
+    private static int bucket(long nanos) {
+        return BUCKETS - Long.numberOfLeadingZeros(nanos / 1000);
+    }
+
+    public long trials() {
+        return trials.sum();
+    }
+
+    public long opens() {
+        return opens.sum();
+    }
+
+    public long rejected() {
+        return rejected.sum();
+    }
+
+    public long unions() {
+        return unions.sum();
+    }
+
+    public long finds() {
+        return finds.sum();
+    }
+
+    public long findSteps() {
+        return findSteps.sum();
+    }
+
+    /** Returns the number of trials on an N-by-N grid whose wall time fell in
+     * bucket b, i.e. took at least 2^(b - 1) and less than 2^b microseconds
+     * (bucket 0 is under a microsecond).
+     *
+     * @param N
+     * @param b
+     * @return long
+     */
+    public long wallTimeCount(int N, int b) {
+        AtomicLongArray histogram = wallTimes.get(N);
+        if (histogram == null || b < 0 || b >= BUCKETS) {
+            return 0;
+        }
+        return histogram.get(b);
+    }
+
+    /** Forgets everything recorded so far. Not atomic with concurrent trials. */
+    public void reset() {
+        trials.reset();
+        opens.reset();
+        rejected.reset();
+        unions.reset();
+        finds.reset();
+        findSteps.reset();
+        wallTimes.clear();
+    }
+
+    /** Prints the totals, per-trial averages and wall time histograms to out.
+     *
+     * @param out
+     */
+    public void report(PrintStream out) {
+        long t = Math.max(1, trials());
+        out.printf("%d trials%n", trials());
+        out.printf("opens        %14d  (%.1f per trial)%n", opens(), opens() / (double) t);
+        out.printf("rejected     %14d  (%.1f per trial)%n", rejected(), rejected() / (double) t);
+        out.printf("unions       %14d  (%.1f per trial)%n", unions(), unions() / (double) t);
+        out.printf("finds        %14d  (%.2f links per find)%n", finds(),
+                findSteps() / (double) Math.max(1, finds()));
+        for (Map.Entry<Integer, AtomicLongArray> e : wallTimes.entrySet()) {
+            out.printf("wall time, N = %d%n", e.getKey());
+            AtomicLongArray histogram = e.getValue();
+            for (int b = 0; b < BUCKETS; b += 1) {
+                long count = histogram.get(b);
+                if (count > 0) {
+                    out.printf("  < %10d us %10d%n", 1L << b, count);
+                }
+            }
+        }
+    }
+}
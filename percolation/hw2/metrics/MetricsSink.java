@@ -0,0 +1,9 @@
+package hw2.metrics;
+
+/** Receives one TrialRecord per completed trial. Trials run on several
+ * threads at once, so implementations must be thread safe.
+ */
+public interface MetricsSink {
+    /* Records a completed trial. */
+    void record(TrialRecord trial);
+}
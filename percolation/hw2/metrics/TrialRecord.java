@@ -0,0 +1,57 @@
+package hw2.metrics;
+
+/** What one percolation trial did: its grid size, how many sites it opened,
+ * how many random samples it drew for sites that were already open, how many
+ * unions and finds it ran, how many parent links those finds followed, and
+ * how long it took.
+ */
+public class TrialRecord {
+    private final int N;
+    private final long opens;
+    private final long rejected;
+    private final long unions;
+    private final long finds;
+    private final long findSteps;
+    private final long nanos;
+
+    public TrialRecord(int N, long opens, long rejected, long unions, long finds,
+                       long findSteps, long nanos) {
+        this.N = N;
+        this.opens = opens;
+        this.rejected = rejected;
+        this.unions = unions;
+        this.finds = finds;
+        this.findSteps = findSteps;
+        this.nanos = nanos;
+    }
+
+    public int N() {
+        return N;
+    }
+
+    public long opens() {
+        return opens;
+    }
+
+    public long rejected() {
+        return rejected;
+    }
+
+    public long unions() {
+        return unions;
+    }
+
+    public long finds() {
+        return finds;
+    }
+
+    /** Returns the total number of parent links followed by all finds. */
+    public long findSteps() {
+        return findSteps;
+    }
+
+    /** Returns the wall-clock time of the trial in nanoseconds. */
+    public long nanos() {
+        return nanos;
+    }
+}
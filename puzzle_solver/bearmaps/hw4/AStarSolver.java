@@ -1,5 +1,9 @@
 package bearmaps.hw4;
 import bearmaps.proj2ab.ArrayHeapMinPQ;
+import bearmaps.proj2ab.ExtrinsicMinPQ;
+import bearmaps.proj2ab.IntIndexedMinPQ;
+import bearmaps.proj2ab.LongIndexedMinPQ;
+import bearmaps.proj2ab.MonotoneBucketMinPQ;
 import edu.princeton.cs.algs4.Stopwatch;
 
 import java.util.HashMap;
@@ -12,13 +16,25 @@ public class AStarSolver<Vertex> implements ShortestPathsSolver<Vertex> {
     private List<Vertex> solution;
     private double timeSpent;
     private int numExplored;
-    private ArrayHeapMinPQ<Vertex> pq;
+    private ExtrinsicMinPQ<Vertex> pq;
     private HashMap<Vertex, Double> distTo;
     private HashMap<Vertex, Vertex> edgeTo;
 
     public AStarSolver(AStarGraph<Vertex> input, Vertex start, Vertex end, double timeout) {
+        this(input, start, end, timeout, fringe(input));
+    }
+
+    /** Solves like the constructor above, keeping the fringe in the given
+     * priority queue, which must be empty. Useful for comparing or
+     * instrumenting ExtrinsicMinPQ implementations.
+     */
+    public AStarSolver(AStarGraph<Vertex> input, Vertex start, Vertex end, double timeout,
+                       ExtrinsicMinPQ<Vertex> pq) {
+        if (pq.size() != 0) {
+            throw new IllegalArgumentException("The priority queue must be empty");
+        }
         solution = new ArrayList<>();
-        pq = new ArrayHeapMinPQ<>();
+        this.pq = pq;
         distTo = new HashMap<>();
         edgeTo = new HashMap<>();
         numExplored = -1;
@@ -68,6 +84,24 @@ public class AStarSolver<Vertex> implements ShortestPathsSolver<Vertex> {
         }
     }
 
+    /** Returns an empty priority queue suited to the input: a
+     * MonotoneBucketMinPQ for graphs with integral weights, an
+     * IntIndexedMinPQ for graphs with dense int ids, a LongIndexedMinPQ for
+     * graphs with long ids, and an ArrayHeapMinPQ otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    private static <Vertex> ExtrinsicMinPQ<Vertex> fringe(AStarGraph<Vertex> input) {
+        if (input instanceof IntegralWeightGraph) {
+            return new MonotoneBucketMinPQ<>();
+        } else if (input instanceof DenseIntGraph) {
+            int n = ((DenseIntGraph) input).vertexCount();
+            return (ExtrinsicMinPQ<Vertex>) (ExtrinsicMinPQ<?>) new IntIndexedMinPQ(n);
+        } else if (input instanceof LongIdGraph) {
+            return (ExtrinsicMinPQ<Vertex>) (ExtrinsicMinPQ<?>) new LongIndexedMinPQ();
+        }
+        return new ArrayHeapMinPQ<>();
+    }
+
     private void findEdges(Vertex v, Vertex start, List<Vertex> reverse) {
         Vertex e = edgeTo.get(v);
         reverse.add(e);
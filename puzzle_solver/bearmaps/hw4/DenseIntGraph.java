@@ -0,0 +1,10 @@
+package bearmaps.hw4;
+
+/**
+ * An AStarGraph whose vertices are exactly the Integers 0 through
+ * vertexCount() - 1. AStarSolver uses this to keep its fringe in an
+ * IntIndexedMinPQ instead of hashing every vertex.
+ */
+public interface DenseIntGraph extends AStarGraph<Integer> {
+    int vertexCount();
+}
@@ -0,0 +1,11 @@
+package bearmaps.hw4;
+
+/**
+ * An AStarGraph whose edge weights and distance estimates are all integers,
+ * with an estimate that is consistent: it never drops by more than the
+ * weight of the edge just taken. A* priorities then only grow from one
+ * removal to the next, so AStarSolver keeps its fringe in a
+ * MonotoneBucketMinPQ instead of a binary heap.
+ */
+public interface IntegralWeightGraph<Vertex> extends AStarGraph<Vertex> {
+}
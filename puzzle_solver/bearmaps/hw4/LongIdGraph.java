@@ -0,0 +1,9 @@
+package bearmaps.hw4;
+
+/**
+ * An AStarGraph whose vertices are Long ids. AStarSolver uses this to keep
+ * its fringe in a LongIndexedMinPQ, which hashes the primitive ids itself
+ * instead of going through a HashMap of boxed Longs.
+ */
+public interface LongIdGraph extends AStarGraph<Long> {
+}
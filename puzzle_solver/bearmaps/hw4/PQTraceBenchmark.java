@@ -0,0 +1,135 @@
+package bearmaps.hw4;
+
+import bearmaps.hw4.slidingpuzzle.Board;
+import bearmaps.hw4.slidingpuzzle.BoardGraph;
+import bearmaps.hw4.streetmap.StreetMapGraph;
+import bearmaps.proj2ab.ArrayHeapMinPQ;
+import bearmaps.proj2ab.DoubleMapPQ;
+import bearmaps.proj2ab.ExtrinsicMinPQ;
+import bearmaps.proj2ab.FourAryHeapMinPQ;
+import bearmaps.proj2ab.IntIndexedMinPQ;
+import bearmaps.proj2ab.MonotoneBucketMinPQ;
+import bearmaps.proj2ab.PQTrace;
+import bearmaps.proj2ab.PairingHeapMinPQ;
+import bearmaps.proj2ab.RecordingMinPQ;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntFunction;
+
+/**
+ * Records the priority queue operations A* makes on the demo problems and
+ * replays them against every ExtrinsicMinPQ implementation, so heaps can be
+ * compared on real search workloads. Each argument is one workload:
+ *   - a street map in simple format (name ending in .simple), routed between
+ *     the two nodes used by DemoStreetDirections;
+ *   - a trace saved by an earlier run (name ending in .trace);
+ *   - any other file is read as a sliding puzzle board.
+ * With "-o dir" before the workloads, recorded traces are saved to dir.
+ * Next to each time is the number of operations the replay had to swap
+ * (an add for a priority change or the reverse) because that queue broke
+ * ties differently from the recording; a large count means the timed
+ * workload drifted from the recorded one. MonotoneBucketMinPQ only takes
+ * integer priorities, so it is skipped on street maps.
+ * Example, from bearmaps/hw4/input:
+ *   java bearmaps.hw4.PQTraceBenchmark HardPuzzle1.txt HardPuzzle2.txt
+ */
+public class PQTraceBenchmark {
+    private static final int WARMUP_ROUNDS = 3;
+    private static final int ROUNDS = 7;
+    private static final double TIMEOUT = 60;
+
+    private static long checksum;
+    private static int substitutions;
+
+    private static final String[] NAMES = {"ArrayHeapMinPQ", "FourAryHeapMinPQ",
+        "PairingHeapMinPQ", "DoubleMapPQ", "IntIndexedMinPQ", "MonotoneBucketMinPQ"};
+
+    private static ExtrinsicMinPQ<Integer> make(int which, int items) {
+        switch (which) {
+            case 0:
+                return new ArrayHeapMinPQ<>();
+            case 1:
+                return new FourAryHeapMinPQ<>();
+            case 2:
+                return new PairingHeapMinPQ<>();
+            case 3:
+                return new DoubleMapPQ<>();
+            case 4:
+                return new IntIndexedMinPQ(items);
+            default:
+                return new MonotoneBucketMinPQ<>();
+        }
+    }
+
+    private static <Vertex> PQTrace record(AStarGraph<Vertex> graph, Vertex start, Vertex goal) {
+        RecordingMinPQ<Vertex> pq = new RecordingMinPQ<>(new ArrayHeapMinPQ<>());
+        AStarSolver<Vertex> solver = new AStarSolver<>(graph, start, goal, TIMEOUT, pq);
+        System.out.printf("  %s after %d states%n", solver.outcome(), solver.numStatesExplored());
+        return pq.trace();
+    }
+
+    private static PQTrace load(String name) throws IOException {
+        if (name.endsWith(".trace")) {
+            return PQTrace.readFrom(new File(name));
+        } else if (name.endsWith(".simple")) {
+            StreetMapGraph smg = StreetMapGraph.readFromSimpleFormat(name);
+            return record(smg, 2793619975L, 2793619967L);
+        }
+        Board start = Board.readBoard(name);
+        return record(new BoardGraph(), start, Board.solved(start.size()));
+    }
+
+    /* Returns the median replay time in milliseconds of trace against queues
+     * from make, and leaves the substitutions of the last round in substitutions. */
+    private static double time(PQTrace trace, IntFunction<ExtrinsicMinPQ<Integer>> make) {
+        for (int i = 0; i < WARMUP_ROUNDS; i += 1) {
+            checksum += trace.replay(make.apply(trace.itemCount())).checksum();
+        }
+        double[] millis = new double[ROUNDS];
+        for (int i = 0; i < ROUNDS; i += 1) {
+            ExtrinsicMinPQ<Integer> pq = make.apply(trace.itemCount());
+            long start = System.nanoTime();
+            PQTrace.Replay replay = trace.replay(pq);
+            millis[i] = (System.nanoTime() - start) / 1e6;
+            checksum += replay.checksum();
+            substitutions = replay.substitutions();
+        }
+        Arrays.sort(millis);
+        return millis[ROUNDS / 2];
+    }
+
+    public static void main(String[] args) throws IOException {
+        File outputDir = null;
+        int first = 0;
+        if (args.length > 1 && args[0].equals("-o")) {
+            outputDir = new File(args[1]);
+            first = 2;
+        }
+        for (int a = first; a < args.length; a += 1) {
+            System.out.println(args[a] + ":");
+            PQTrace trace = load(args[a]);
+            System.out.printf("  %d operations on %d items: %d add, %d changePriority, "
+                    + "%d removeSmallest, %d contains%n", trace.length(), trace.itemCount(),
+                    trace.count(PQTrace.ADD), trace.count(PQTrace.CHANGE_PRIORITY),
+                    trace.count(PQTrace.REMOVE_SMALLEST), trace.count(PQTrace.CONTAINS));
+            if (outputDir != null && !args[a].endsWith(".trace")) {
+                File out = new File(outputDir, new File(args[a]).getName() + ".trace");
+                trace.writeTo(out);
+                System.out.println("  saved to " + out);
+            }
+            for (int which = 0; which < NAMES.length; which += 1) {
+                int w = which;
+                try {
+                    double ms = time(trace, items -> make(w, items));
+                    System.out.printf("  %-19s %10.2f ms %8d substitutions%n", NAMES[which], ms,
+                            substitutions);
+                } catch (IllegalArgumentException e) {
+                    System.out.printf("  %-19s skipped: %s%n", NAMES[which], e.getMessage());
+                }
+            }
+        }
+        System.out.println("checksum " + checksum);
+    }
+}
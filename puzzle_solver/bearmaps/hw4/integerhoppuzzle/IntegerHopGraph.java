@@ -1,6 +1,6 @@
 package bearmaps.hw4.integerhoppuzzle;
 
-import bearmaps.hw4.AStarGraph;
+import bearmaps.hw4.IntegralWeightGraph;
 import bearmaps.hw4.WeightedEdge;
 
 import java.util.ArrayList;
@@ -10,7 +10,7 @@ import java.util.List;
  * The Integer Hop puzzle implemented as a graph.
  * Created by hug.
  */
-public class IntegerHopGraph implements AStarGraph<Integer> {
+public class IntegerHopGraph implements IntegralWeightGraph<Integer> {
 
     @Override
     public List<WeightedEdge<Integer>> neighbors(Integer v) {
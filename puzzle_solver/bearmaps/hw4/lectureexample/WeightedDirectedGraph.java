@@ -1,6 +1,6 @@
 package bearmaps.hw4.lectureexample;
 
-import bearmaps.hw4.AStarGraph;
+import bearmaps.hw4.DenseIntGraph;
 import bearmaps.hw4.WeightedEdge;
 
 import java.util.ArrayList;
@@ -10,7 +10,7 @@ import java.util.List;
  * A very simple (and literal) example of an AStarGraph.
  * Created by hug.
  */
-public class WeightedDirectedGraph implements AStarGraph<Integer> {
+public class WeightedDirectedGraph implements DenseIntGraph {
     /* Represents the list of edges from a single vertex. */
     private class EdgeList {
         private List<WeightedEdge<Integer>> list;
@@ -28,6 +28,11 @@ public class WeightedDirectedGraph implements AStarGraph<Integer> {
         }
     }
 
+    @Override
+    public int vertexCount() {
+        return adj.length;
+    }
+
     @Override
     public List<WeightedEdge<Integer>> neighbors(Integer v) {
         return adj[v].list;
@@ -1,7 +1,7 @@
 package bearmaps.hw4.slidingpuzzle;
 
 
-import bearmaps.hw4.AStarGraph;
+import bearmaps.hw4.IntegralWeightGraph;
 import bearmaps.hw4.WeightedEdge;
 
 import java.util.ArrayList;
@@ -14,7 +14,7 @@ import java.util.List;
  * improve A* performance.
  * Created by hug.
  */
-public class BoardGraph implements AStarGraph<Board> {
+public class BoardGraph implements IntegralWeightGraph<Board> {
     @Override
     public List<WeightedEdge<Board>> neighbors(Board b) {
         List<Board> neighbors = b.neighbors();
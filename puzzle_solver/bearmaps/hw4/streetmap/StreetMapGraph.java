@@ -1,6 +1,6 @@
 package bearmaps.hw4.streetmap;
 
-import bearmaps.hw4.AStarGraph;
+import bearmaps.hw4.LongIdGraph;
 import bearmaps.hw4.WeightedEdge;
 import org.xml.sax.SAXException;
 
@@ -19,7 +19,7 @@ import java.util.Map;
 import java.util.Scanner;
 import java.util.Set;
 
-public class StreetMapGraph implements AStarGraph<Long> {
+public class StreetMapGraph implements LongIdGraph {
     private Map<Long, Node> nodes = new HashMap<>();
     private Map<Long, Set<WeightedEdge<Long>>> neighbors = new HashMap<>();
 
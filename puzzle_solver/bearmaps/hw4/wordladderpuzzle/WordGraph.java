@@ -1,6 +1,6 @@
 package bearmaps.hw4.wordladderpuzzle;
 
-import bearmaps.hw4.AStarGraph;
+import bearmaps.hw4.IntegralWeightGraph;
 import bearmaps.hw4.WeightedEdge;
 import edu.princeton.cs.introcs.In;
 
@@ -17,7 +17,7 @@ import java.util.Set;
  * words10000.txt).
  * Created by hug.
  */
-public class WordGraph implements AStarGraph<String> {
+public class WordGraph implements IntegralWeightGraph<String> {
     private Set<String> words;
     private static final String WORDFILE = "words10000.txt";
 
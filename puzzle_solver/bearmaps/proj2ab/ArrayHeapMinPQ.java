@@ -1,157 +1,130 @@
 package bearmaps.proj2ab;
 
-import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.HashMap;
 
 public class ArrayHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
-    private ArrayList<PQNode> arr;
-    private HashMap<T, PQNode>  hash;
+    private static final int INITIAL_CAPACITY = 16;
+
+    private PQNode<T>[] nodes;
+    private double[] priorities;
+    private HashMap<T, PQNode<T>> hash;
     private int size;
-    private PQNode first;
 
-    private class PQNode {
+    /** An item and its current position in the heap. Nodes are created once
+     * per add and then moved around by updating index in place, so swaps
+     * allocate nothing. The priority of the node at position i is kept in
+     * priorities[i] rather than in the node, so comparisons read a flat
+     * double[] instead of chasing a pointer per node.
+     */
+    private static class PQNode<T> {
         T item;
-        double priority;
         int index;
 
-        private PQNode(T t, double p, int i) {
+        private PQNode(T t, int i) {
             item = t;
-            priority = p;
             index = i;
         }
     }
 
     /** ArrayHeapMinPQ constructor. */
+    @SuppressWarnings("unchecked")
     public ArrayHeapMinPQ() {
-        arr = new ArrayList<>();
+        nodes = (PQNode<T>[]) new PQNode[INITIAL_CAPACITY];
+        priorities = new double[INITIAL_CAPACITY];
         hash = new HashMap<>();
         size = 0;
-        first = null;
     }
 
-    /** Returns a given node's left child node. If the given node does
-     * not have a left child node, returns null.
+    /** Swaps the nodes at positions i and j, along with their priorities.
      *
-     * @param node
-     * @return left child node
-     *
-     * @source
-     * https://cs.stackexchange.com/questions/87154/why-does-the-formula-
-     * 2n-1-find-the-child-node-in-a-binary-heap
-     * Used source to find the index of a node's left child.
+     * @param i
+     * @param j
      */
-    private PQNode leftChild(PQNode node) {
-        int child = (node.index * 2) + 1;
-        if (child >= size) {
-            return null;
-        }
-        return arr.get(child);
+    private void swap(int i, int j) {
+        PQNode<T> a = nodes[i];
+        PQNode<T> b = nodes[j];
+        nodes[i] = b;
+        nodes[j] = a;
+        b.index = i;
+        a.index = j;
+        double p = priorities[i];
+        priorities[i] = priorities[j];
+        priorities[j] = p;
     }
 
-    /** Returns a given node's right child node. If the given node does
-     * not have a right child node, returns null.
+    /** Moves the node at position i down in this ArrayHeapMinPQ until both
+     * of its child nodes' priorities are greater than or equal to its priority.
+     * The left child of position i is at 2i + 1 and the right child at 2i + 2.
+     * When choosing which child node to swap positions with, if both child
+     * nodes have equal priority, the node will arbitrarily swap with the right.
      *
-     * @param node
-     * @return right child node
+     * @param i
      *
      * @source
      * https://cs.stackexchange.com/questions/87154/why-does-the-formula-
      * 2n-1-find-the-child-node-in-a-binary-heap
-     * Used source to find the index of a node's right child.
+     * Used source to find the index of a node's children.
      */
-    private PQNode rightChild(PQNode node) {
-        int child = (node.index * 2) + 2;
-        if (child >= size) {
-            return null;
+    private void sink(int i) {
+        int left = (i * 2) + 1;
+        while (left < size) {
+            int child = left;
+            int right = left + 1;
+            if (right < size && priorities[right] <= priorities[left]) {
+                child = right;
+            }
+            if (priorities[i] <= priorities[child]) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+            left = (i * 2) + 1;
         }
-        return arr.get(child);
     }
 
-    /** Returns the parent node of the given node. If the given node is in
-     * the first position of this ArrayHeapMinPQ, returns null.
+    /** Moves the node at position i up in this ArrayHeapMinPQ until
+     * its parent node's priority is less than or equal to its priority.
      *
-     * @param node
-     * @return parent node
+     * @param i
      */
-    private PQNode parent(PQNode node) {
-        if (node.index == 0) {
-            return null;
+    private void swim(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (priorities[i] >= priorities[parent]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
         }
-        return arr.get((node.index - 1) / 2);
     }
 
-    /** Swaps the positions of the two given nodes in this ArrayHeapMinPQ.
+    /** Removes and returns the item at the root, which must exist, moving
+     * the last node up in its place and sinking it.
      *
-     * @param a
-     * @param b
+     * @return smallest item
      */
-    private PQNode swap(PQNode a, PQNode b) {
-        int aI = a.index;
-        int bI = b.index;
-        a = new PQNode(a.item, a.priority, bI);
-        b = new PQNode(b.item, b.priority, aI);
-        if (aI == 0) {
-            first = b;
-        } else if (bI == 0) {
-            first = a;
-        }
-        arr.set(aI, b);
-        arr.set(bI, a);
-        hash.replace(a.item, a);
-        hash.replace(b.item, b);
-        return a;
+    private T removeRoot() {
+        T min = nodes[0].item;
+        swap(0, size - 1);
+        hash.remove(min);
+        size -= 1;
+        nodes[size] = null;
+        sink(0);
+        return min;
     }
 
-    /** Moves a given node's position down in this ArrayHeapMinPQ until both
-     * it's child node's priority is greater than or equal to its priority.
-     * When choosing which child node to swap positions with, if both child
-     * nodes have equal priority, the given node will arbitrarily swap with
-     * the right.
+    /** Doubles the capacity of the backing arrays, or more if that still
+     * cannot hold the given number of items.
      *
-     * @param node
+     * @param needed
      */
-    private void sink(PQNode node) {
-        PQNode right = rightChild(node);
-        PQNode left = leftChild(node);
-        if (right == null && left != null) {
-            if (node.priority > left.priority) {
-                PQNode update = swap(node, left);
-                sink(update);
-            }
-        } else if (left == null && right != null) {
-            if (node.priority > right.priority) {
-                PQNode update = swap(node, right);
-                sink(update);
-            }
-        } else if (right != null && left != null) {
-            double rDiff = node.priority - right.priority;
-            double lDiff = node.priority - left.priority;
-            if (rDiff >= lDiff && rDiff > 0) {
-                PQNode update = swap(node, right);
-                sink(update);
-            } else if (lDiff >= rDiff && lDiff > 0) {
-                PQNode update = swap(node, left);
-                sink(update);
-            }
-        }
-    }
-
-    /** Moves a given node's position up in this ArrayHeapMinPQ until
-     * its parent node's priority is less than or equal to its priority.
-     * If the given node has the lowest priority in this ArrayHeapMinPQ,
-     * the node will be set to the first position.
-     *
-     * @param node
-     */
-    private void swim(PQNode node) {
-        PQNode parent = parent(node);
-        if (parent == null) {
-            first = node;
-        } else if (node.priority < parent.priority) {
-            PQNode update = swap(node, parent);
-            swim(update);
-        }
+    private void grow(int needed) {
+        int capacity = Math.max(nodes.length * 2, needed);
+        nodes = Arrays.copyOf(nodes, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
     }
 
     /** Returns the number of items in this ArrayHeapMinPQ.
@@ -185,11 +158,61 @@ public class ArrayHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
         if (contains(item)) {
             throw new IllegalArgumentException("Item is already in this ArrayHeapMinPQ");
         }
-        PQNode node = new PQNode(item, priority, size);
-        arr.add(size, node);
+        if (size == nodes.length) {
+            grow(size + 1);
+        }
+        PQNode<T> node = new PQNode<>(item, size);
+        nodes[size] = node;
+        priorities[size] = priority;
         hash.put(item, node);
         size += 1;
-        swim(node);
+        swim(size - 1);
+    }
+
+    /** Adds every item in items, with the priority at the same index in
+     * priorities. If the batch is at least as large as the heap already is,
+     * the items are appended and the whole heap is rebuilt bottom-up (Floyd's
+     * method), which takes O(n) time instead of O(k log n) for k separate
+     * adds. Smaller batches are swum into place one by one. Throws an
+     * IllegalArgumentException, leaving this ArrayHeapMinPQ unchanged, if
+     * the lengths differ or an item is already present or repeated.
+     *
+     * @param items
+     * @param priorities
+     */
+    public void addAll(List<? extends T> items, double[] priorities) {
+        int k = items.size();
+        if (k != priorities.length) {
+            throw new IllegalArgumentException("Got " + k + " items but "
+                    + priorities.length + " priorities");
+        }
+        if (size + k > nodes.length) {
+            grow(size + k);
+        }
+        int old = size;
+        for (T item : items) {
+            PQNode<T> node = new PQNode<>(item, size);
+            if (hash.putIfAbsent(item, node) != null) {
+                for (int i = old; i < size; i += 1) {
+                    hash.remove(nodes[i].item);
+                    nodes[i] = null;
+                }
+                size = old;
+                throw new IllegalArgumentException("Item is already in this ArrayHeapMinPQ");
+            }
+            nodes[size] = node;
+            this.priorities[size] = priorities[size - old];
+            size += 1;
+        }
+        if (k >= old) {
+            for (int i = (size / 2) - 1; i >= 0; i -= 1) {
+                sink(i);
+            }
+        } else {
+            for (int i = old; i < size; i += 1) {
+                swim(i);
+            }
+        }
     }
 
     /** Returns the lowest priority item and throws NoSuchElementException if
@@ -202,7 +225,7 @@ public class ArrayHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
         if (size == 0) {
             throw new NoSuchElementException("This ArrayHeapMinPQ is empty");
         }
-        return first.item;
+        return nodes[0].item;
     }
 
     /** Removes and returns the lowest priority item. If the ArrayHeapMinPQ is
@@ -215,12 +238,28 @@ public class ArrayHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
         if (size == 0) {
             throw new NoSuchElementException("This ArrayHeapMinPQ is empty");
         }
-        T min = swap(first, arr.get(size - 1)).item;
-        hash.remove(min);
-        arr.remove(size - 1);
-        size -= 1;
-        sink(first);
-        return min;
+        return removeRoot();
+    }
+
+    /** Removes the k lowest priority items, or all of them if fewer remain,
+     * and stores them in buffer in order of priority, starting at index 0.
+     * Returns the number of items removed. Throws an IllegalArgumentException
+     * if k is negative or larger than buffer.
+     *
+     * @param k
+     * @param buffer
+     * @return number of items removed
+     */
+    public int drainSmallest(int k, T[] buffer) {
+        if (k < 0 || k > buffer.length) {
+            throw new IllegalArgumentException("Cannot drain " + k
+                    + " items into a buffer of length " + buffer.length);
+        }
+        int n = Math.min(k, size);
+        for (int i = 0; i < n; i += 1) {
+            buffer[i] = removeRoot();
+        }
+        return n;
     }
 
     /** Changes the priority of the given item. Throws NoSuchElementException if
@@ -231,22 +270,17 @@ public class ArrayHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
      */
     @Override
     public void changePriority(T item, double priority) {
-        if (!contains(item)) {
+        PQNode<T> node = hash.get(item);
+        if (node == null) {
             throw new NoSuchElementException("Item is not in this ArrayHeapMinPQ");
         }
-        PQNode oldN = hash.get(item);
-        double diff = oldN.priority - priority;
-        PQNode newN = new PQNode(item, priority, oldN.index);
-        hash.replace(item, newN);
-        arr.set(oldN.index, newN);
-        if (newN.index == 0) {
-            first = newN;
-        }
-        if (diff > 0) {
-            swim(newN);
-        } else if (diff < 0) {
-            sink(newN);
+        int i = node.index;
+        double old = priorities[i];
+        priorities[i] = priority;
+        if (priority < old) {
+            swim(i);
+        } else if (priority > old) {
+            sink(i);
         }
     }
 }
-
@@ -0,0 +1,206 @@
+package bearmaps.proj2ab;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.HashMap;
+
+/** An ExtrinsicMinPQ backed by a 4-ary heap. Each sink compares four
+ * children per level over half as many levels as a binary heap, and the
+ * shallower tree makes swims, and so changePriority, cheaper. Entries start
+ * at array position ROOT = 3, which puts the four children of the entry at
+ * position k at 4k - 8 through 4k - 5: every sibling group starts at a
+ * multiple of four, so its 32 bytes of priorities share one cache line
+ * whenever the array data is 32-byte aligned. Nodes and the parallel
+ * priorities array work as in ArrayHeapMinPQ.
+ */
+public class FourAryHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
+    private static final int ROOT = 3;
+    private static final int INITIAL_CAPACITY = 32;
+
+    private PQNode<T>[] nodes;
+    private double[] priorities;
+    private HashMap<T, PQNode<T>> hash;
+    private int size;
+
+    /** An item and its current array position in the heap. */
+    private static class PQNode<T> {
+        T item;
+        int index;
+
+        private PQNode(T t, int i) {
+            item = t;
+            index = i;
+        }
+    }
+
+    /** FourAryHeapMinPQ constructor. */
+    @SuppressWarnings("unchecked")
+    public FourAryHeapMinPQ() {
+        nodes = (PQNode<T>[]) new PQNode[INITIAL_CAPACITY];
+        priorities = new double[INITIAL_CAPACITY];
+        hash = new HashMap<>();
+        size = 0;
+    }
+
+    /** Swaps the nodes at positions i and j, along with their priorities.
+     *
+     * @param i
+     * @param j
+     */
+    private void swap(int i, int j) {
+        PQNode<T> a = nodes[i];
+        PQNode<T> b = nodes[j];
+        nodes[i] = b;
+        nodes[j] = a;
+        b.index = i;
+        a.index = j;
+        double p = priorities[i];
+        priorities[i] = priorities[j];
+        priorities[j] = p;
+    }
+
+    /** Moves the node at position k down until none of its children has a
+     * smaller priority, swapping with the last of the smallest children.
+     *
+     * @param k
+     */
+    private void sink(int k) {
+        int end = ROOT + size;
+        int first = 4 * k - 8;
+        while (first < end) {
+            int last = Math.min(first + 4, end);
+            int child = first;
+            for (int c = first + 1; c < last; c += 1) {
+                if (priorities[c] <= priorities[child]) {
+                    child = c;
+                }
+            }
+            if (priorities[k] <= priorities[child]) {
+                return;
+            }
+            swap(k, child);
+            k = child;
+            first = 4 * k - 8;
+        }
+    }
+
+    /** Moves the node at position k up until its parent's priority is less
+     * than or equal to its priority.
+     *
+     * @param k
+     */
+    private void swim(int k) {
+        while (k > ROOT) {
+            int parent = k / 4 + 2;
+            if (priorities[k] >= priorities[parent]) {
+                return;
+            }
+            swap(k, parent);
+            k = parent;
+        }
+    }
+
+    /** Doubles the capacity of the backing arrays. */
+    private void grow() {
+        nodes = Arrays.copyOf(nodes, nodes.length * 2);
+        priorities = Arrays.copyOf(priorities, priorities.length * 2);
+    }
+
+    /** Returns the number of items in this FourAryHeapMinPQ.
+     *
+     * @return size
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /** Returns a boolean indicating whether a given item is in
+     * this FourAryHeapMinPQ.
+     *
+     * @param item
+     * @return boolean
+     */
+    @Override
+    public boolean contains(T item) {
+        return hash.containsKey(item);
+    }
+
+    /** Adds an item with a given priority into this FourAryHeapMinPQ.
+     * If the item is already present, throws an IllegalArgumentException.
+     *
+     * @param item
+     * @param priority
+     */
+    @Override
+    public void add(T item, double priority) {
+        if (contains(item)) {
+            throw new IllegalArgumentException("Item is already in this FourAryHeapMinPQ");
+        }
+        int k = ROOT + size;
+        if (k == nodes.length) {
+            grow();
+        }
+        PQNode<T> node = new PQNode<>(item, k);
+        nodes[k] = node;
+        priorities[k] = priority;
+        hash.put(item, node);
+        size += 1;
+        swim(k);
+    }
+
+    /** Returns the lowest priority item and throws NoSuchElementException if
+     * the FourAryHeapMinPQ is empty.
+     *
+     * @return smallest item
+     */
+    @Override
+    public T getSmallest() {
+        if (size == 0) {
+            throw new NoSuchElementException("This FourAryHeapMinPQ is empty");
+        }
+        return nodes[ROOT].item;
+    }
+
+    /** Removes and returns the lowest priority item. If the FourAryHeapMinPQ is
+     * empty, throws NoSuchElementException.
+     *
+     * @return smallest item
+     */
+    @Override
+    public T removeSmallest() {
+        if (size == 0) {
+            throw new NoSuchElementException("This FourAryHeapMinPQ is empty");
+        }
+        T min = nodes[ROOT].item;
+        int last = ROOT + size - 1;
+        swap(ROOT, last);
+        hash.remove(min);
+        size -= 1;
+        nodes[last] = null;
+        sink(ROOT);
+        return min;
+    }
+
+    /** Changes the priority of the given item. Throws NoSuchElementException if
+     * the item doesn't exist.
+     *
+     * @param item
+     * @param priority
+     */
+    @Override
+    public void changePriority(T item, double priority) {
+        PQNode<T> node = hash.get(item);
+        if (node == null) {
+            throw new NoSuchElementException("Item is not in this FourAryHeapMinPQ");
+        }
+        int k = node.index;
+        double old = priorities[k];
+        priorities[k] = priority;
+        if (priority < old) {
+            swim(k);
+        } else if (priority > old) {
+            sink(k);
+        }
+    }
+}
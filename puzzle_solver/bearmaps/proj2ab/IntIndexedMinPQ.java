@@ -0,0 +1,195 @@
+package bearmaps.proj2ab;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/** An ExtrinsicMinPQ over the ints 0 through n - 1. Instead of a HashMap from
+ * items to nodes it keeps a dense int[] from each id to its heap position
+ * (-1 when absent), with the heap of ids and their priorities in parallel
+ * int[] and double[] arrays. The primitive methods allocate nothing; the
+ * ExtrinsicMinPQ methods only box and unbox their Integer arguments.
+ */
+public class IntIndexedMinPQ implements ExtrinsicMinPQ<Integer> {
+    private int[] heap;
+    private double[] priorities;
+    private int[] position;
+    private int size;
+
+    /** IntIndexedMinPQ constructor for ids 0 through n - 1.
+     *
+     * @param n
+     */
+    public IntIndexedMinPQ(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("The number of ids must not be negative");
+        }
+        heap = new int[n];
+        priorities = new double[n];
+        position = new int[n];
+        Arrays.fill(position, -1);
+        size = 0;
+    }
+
+    private void validate(int id) {
+        if (id < 0 || id >= position.length) {
+            throw new IllegalArgumentException("Id " + id + " is not between 0 and "
+                    + (position.length - 1));
+        }
+    }
+
+    /** Swaps the ids at heap positions i and j, along with their priorities. */
+    private void swap(int i, int j) {
+        int a = heap[i];
+        int b = heap[j];
+        heap[i] = b;
+        heap[j] = a;
+        position[b] = i;
+        position[a] = j;
+        double p = priorities[i];
+        priorities[i] = priorities[j];
+        priorities[j] = p;
+    }
+
+    /** Moves the id at position i down until neither child has a smaller
+     * priority, swapping with the right child on ties like ArrayHeapMinPQ.
+     */
+    private void sink(int i) {
+        int left = (i * 2) + 1;
+        while (left < size) {
+            int child = left;
+            int right = left + 1;
+            if (right < size && priorities[right] <= priorities[left]) {
+                child = right;
+            }
+            if (priorities[i] <= priorities[child]) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+            left = (i * 2) + 1;
+        }
+    }
+
+    /** Moves the id at position i up until its parent's priority is not larger. */
+    private void swim(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (priorities[i] >= priorities[parent]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    /** Returns the number of ids this IntIndexedMinPQ can hold.
+     *
+     * @return capacity
+     */
+    public int capacity() {
+        return position.length;
+    }
+
+    /** Returns whether the given id is in this IntIndexedMinPQ.
+     *
+     * @param id
+     * @return boolean
+     */
+    public boolean contains(int id) {
+        validate(id);
+        return position[id] >= 0;
+    }
+
+    /** Adds an id with a given priority. If the id is already present,
+     * throws an IllegalArgumentException.
+     *
+     * @param id
+     * @param priority
+     */
+    public void add(int id, double priority) {
+        if (contains(id)) {
+            throw new IllegalArgumentException("Item is already in this IntIndexedMinPQ");
+        }
+        heap[size] = id;
+        priorities[size] = priority;
+        position[id] = size;
+        size += 1;
+        swim(size - 1);
+    }
+
+    /** Returns the id with the lowest priority and throws
+     * NoSuchElementException if this IntIndexedMinPQ is empty.
+     *
+     * @return smallest id
+     */
+    public int smallest() {
+        if (size == 0) {
+            throw new NoSuchElementException("This IntIndexedMinPQ is empty");
+        }
+        return heap[0];
+    }
+
+    /** Removes and returns the id with the lowest priority. If this
+     * IntIndexedMinPQ is empty, throws NoSuchElementException.
+     *
+     * @return smallest id
+     */
+    public int removeSmallestId() {
+        int min = smallest();
+        swap(0, size - 1);
+        position[min] = -1;
+        size -= 1;
+        sink(0);
+        return min;
+    }
+
+    /** Changes the priority of the given id. Throws NoSuchElementException if
+     * the id isn't in this IntIndexedMinPQ.
+     *
+     * @param id
+     * @param priority
+     */
+    public void changePriority(int id, double priority) {
+        if (!contains(id)) {
+            throw new NoSuchElementException("Item is not in this IntIndexedMinPQ");
+        }
+        int i = position[id];
+        double old = priorities[i];
+        priorities[i] = priority;
+        if (priority < old) {
+            swim(i);
+        } else if (priority > old) {
+            sink(i);
+        }
+    }
+
+    @Override
+    public void add(Integer item, double priority) {
+        add(item.intValue(), priority);
+    }
+
+    @Override
+    public boolean contains(Integer item) {
+        return contains(item.intValue());
+    }
+
+    @Override
+    public Integer getSmallest() {
+        return smallest();
+    }
+
+    @Override
+    public Integer removeSmallest() {
+        return removeSmallestId();
+    }
+
+    @Override
+    public void changePriority(Integer item, double priority) {
+        changePriority(item.intValue(), priority);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
@@ -0,0 +1,274 @@
+package bearmaps.proj2ab;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/** An ExtrinsicMinPQ over arbitrary long ids, such as OpenStreetMap node ids.
+ * Each id present gets a dense slot number, found through an open-addressing
+ * (linear probing) hash table from long ids to slots. The heap holds slots,
+ * with their priorities in a parallel double[], and a slot's heap position
+ * is kept in an int[]. Slots of removed ids are reused, and all arrays grow
+ * by doubling, so the primitive methods allocate nothing except when
+ * growing. The ExtrinsicMinPQ methods only box and unbox their Long arguments.
+ */
+public class LongIndexedMinPQ implements ExtrinsicMinPQ<Long> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int EMPTY = -1;
+
+    /* Hash table from id to slot; a slot of EMPTY marks a free bucket. */
+    private long[] keys;
+    private int[] slotOf;
+    private int shift;
+
+    /* Per-slot state; freed slots are chained through free. */
+    private long[] ids;
+    private int[] position;
+    private int[] free;
+    private int freeCount;
+    private int slots;
+
+    private int[] heap;
+    private double[] priorities;
+    private int size;
+
+    /** LongIndexedMinPQ constructor. */
+    public LongIndexedMinPQ() {
+        keys = new long[2 * INITIAL_CAPACITY];
+        slotOf = new int[2 * INITIAL_CAPACITY];
+        Arrays.fill(slotOf, EMPTY);
+        shift = Long.numberOfLeadingZeros(keys.length - 1);
+        ids = new long[INITIAL_CAPACITY];
+        position = new int[INITIAL_CAPACITY];
+        free = new int[INITIAL_CAPACITY];
+        freeCount = 0;
+        slots = 0;
+        heap = new int[INITIAL_CAPACITY];
+        priorities = new double[INITIAL_CAPACITY];
+        size = 0;
+    }
+
+    /** Returns the home bucket of id, from the high bits of a Fibonacci hash. */
+    private int bucket(long id) {
+        return (int) ((id * 0x9E3779B97F4A7C15L) >>> shift);
+    }
+
+    /** Returns the bucket holding id, or the empty bucket where it would go. */
+    private int find(long id) {
+        int mask = keys.length - 1;
+        int b = bucket(id);
+        while (slotOf[b] != EMPTY && keys[b] != id) {
+            b = (b + 1) & mask;
+        }
+        return b;
+    }
+
+    /** Empties bucket b and moves later entries of its probe run back so
+     * every remaining id can still be found without tombstones.
+     */
+    private void removeBucket(int b) {
+        int mask = keys.length - 1;
+        int hole = b;
+        int next = (hole + 1) & mask;
+        while (slotOf[next] != EMPTY) {
+            int home = bucket(keys[next]);
+            // move next into the hole unless its home lies in (hole, next]
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                slotOf[hole] = slotOf[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slotOf[hole] = EMPTY;
+    }
+
+    /** Doubles the per-slot and heap arrays, and the hash table with them. */
+    private void grow() {
+        int capacity = ids.length * 2;
+        ids = Arrays.copyOf(ids, capacity);
+        position = Arrays.copyOf(position, capacity);
+        free = Arrays.copyOf(free, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+
+        long[] oldKeys = keys;
+        int[] oldSlots = slotOf;
+        keys = new long[2 * capacity];
+        slotOf = new int[2 * capacity];
+        Arrays.fill(slotOf, EMPTY);
+        shift = Long.numberOfLeadingZeros(keys.length - 1);
+        for (int b = 0; b < oldKeys.length; b += 1) {
+            if (oldSlots[b] != EMPTY) {
+                int to = find(oldKeys[b]);
+                keys[to] = oldKeys[b];
+                slotOf[to] = oldSlots[b];
+            }
+        }
+    }
+
+    /** Swaps the slots at heap positions i and j, along with their priorities. */
+    private void swap(int i, int j) {
+        int a = heap[i];
+        int b = heap[j];
+        heap[i] = b;
+        heap[j] = a;
+        position[b] = i;
+        position[a] = j;
+        double p = priorities[i];
+        priorities[i] = priorities[j];
+        priorities[j] = p;
+    }
+
+    /** Moves the slot at position i down until neither child has a smaller
+     * priority, swapping with the right child on ties like ArrayHeapMinPQ.
+     */
+    private void sink(int i) {
+        int left = (i * 2) + 1;
+        while (left < size) {
+            int child = left;
+            int right = left + 1;
+            if (right < size && priorities[right] <= priorities[left]) {
+                child = right;
+            }
+            if (priorities[i] <= priorities[child]) {
+                return;
+            }
+            swap(i, child);
+            i = child;
+            left = (i * 2) + 1;
+        }
+    }
+
+    /** Moves the slot at position i up until its parent's priority is not larger. */
+    private void swim(int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (priorities[i] >= priorities[parent]) {
+                return;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    /** Returns whether the given id is in this LongIndexedMinPQ.
+     *
+     * @param id
+     * @return boolean
+     */
+    public boolean contains(long id) {
+        return slotOf[find(id)] != EMPTY;
+    }
+
+    /** Adds an id with a given priority. If the id is already present,
+     * throws an IllegalArgumentException.
+     *
+     * @param id
+     * @param priority
+     */
+    public void add(long id, double priority) {
+        if (contains(id)) {
+            throw new IllegalArgumentException("Item is already in this LongIndexedMinPQ");
+        }
+        if (size == ids.length) {
+            grow();
+        }
+        int slot;
+        if (freeCount > 0) {
+            freeCount -= 1;
+            slot = free[freeCount];
+        } else {
+            slot = slots;
+            slots += 1;
+        }
+        int b = find(id);
+        keys[b] = id;
+        slotOf[b] = slot;
+        ids[slot] = id;
+        heap[size] = slot;
+        priorities[size] = priority;
+        position[slot] = size;
+        size += 1;
+        swim(size - 1);
+    }
+
+    /** Returns the id with the lowest priority and throws
+     * NoSuchElementException if this LongIndexedMinPQ is empty.
+     *
+     * @return smallest id
+     */
+    public long smallest() {
+        if (size == 0) {
+            throw new NoSuchElementException("This LongIndexedMinPQ is empty");
+        }
+        return ids[heap[0]];
+    }
+
+    /** Removes and returns the id with the lowest priority. If this
+     * LongIndexedMinPQ is empty, throws NoSuchElementException.
+     *
+     * @return smallest id
+     */
+    public long removeSmallestId() {
+        long min = smallest();
+        int slot = heap[0];
+        swap(0, size - 1);
+        size -= 1;
+        sink(0);
+        removeBucket(find(min));
+        free[freeCount] = slot;
+        freeCount += 1;
+        return min;
+    }
+
+    /** Changes the priority of the given id. Throws NoSuchElementException if
+     * the id isn't in this LongIndexedMinPQ.
+     *
+     * @param id
+     * @param priority
+     */
+    public void changePriority(long id, double priority) {
+        int slot = slotOf[find(id)];
+        if (slot == EMPTY) {
+            throw new NoSuchElementException("Item is not in this LongIndexedMinPQ");
+        }
+        int i = position[slot];
+        double old = priorities[i];
+        priorities[i] = priority;
+        if (priority < old) {
+            swim(i);
+        } else if (priority > old) {
+            sink(i);
+        }
+    }
+
+    @Override
+    public void add(Long item, double priority) {
+        add(item.longValue(), priority);
+    }
+
+    @Override
+    public boolean contains(Long item) {
+        return contains(item.longValue());
+    }
+
+    @Override
+    public Long getSmallest() {
+        return smallest();
+    }
+
+    @Override
+    public Long removeSmallest() {
+        return removeSmallestId();
+    }
+
+    @Override
+    public void changePriority(Long item, double priority) {
+        changePriority(item.longValue(), priority);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+}
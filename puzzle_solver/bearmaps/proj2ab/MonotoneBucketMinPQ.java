@@ -0,0 +1,211 @@
+package bearmaps.proj2ab;
+
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+
+/** An ExtrinsicMinPQ for integer priorities that never drop below the last
+ * priority removed, as in Dijkstra's algorithm or A* with a consistent
+ * heuristic over integer edge weights (Dial's algorithm). Each priority p
+ * has a bucket, a doubly linked list of its items, at index p mod the
+ * number of buckets, so add and changePriority are O(1) and removeSmallest
+ * only scans forward from the last removed priority. Since the scan never
+ * goes back, removals cost O(1) amortized as long as the priorities present
+ * at once span a bounded range. The bucket array doubles whenever that span
+ * outgrows it.
+ *
+ * Items with equal priorities come out most recently added first, which in
+ * A* favors the deeper of equally promising states.
+ */
+public class MonotoneBucketMinPQ<T> implements ExtrinsicMinPQ<T> {
+    private static final int INITIAL_BUCKETS = 64;
+
+    private HashMap<T, Node<T>> hash;
+    private Node<T>[] buckets;
+    private int mask;
+    /* No item has a priority below floor, the priority last removed. */
+    private long floor;
+    private boolean removed;
+    /* Every item's priority lies between low and high, inclusive. */
+    private long low;
+    private long high;
+
+    private static class Node<T> {
+        T item;
+        long priority;
+        Node<T> next;
+        Node<T> prev;
+
+        private Node(T t, long p) {
+            item = t;
+            priority = p;
+        }
+    }
+
+    /** MonotoneBucketMinPQ constructor. */
+    @SuppressWarnings("unchecked")
+    public MonotoneBucketMinPQ() {
+        hash = new HashMap<>();
+        buckets = (Node<T>[]) new Node[INITIAL_BUCKETS];
+        mask = INITIAL_BUCKETS - 1;
+        removed = false;
+    }
+
+    /** Returns priority as a long, throwing IllegalArgumentException if it is
+     * not an integer or is below the last priority removed.
+     */
+    private long key(double priority) {
+        long p = (long) priority;
+        if (p != priority || p == Long.MAX_VALUE || p == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("Priority " + priority + " is not an integer");
+        }
+        if (removed && p < floor) {
+            throw new IllegalArgumentException("Priority " + p
+                    + " is below the last removed priority " + floor);
+        }
+        return p;
+    }
+
+    /** Widens the range of priorities present to include p, growing the
+     * bucket array if the range no longer fits.
+     */
+    private void cover(long p) {
+        if (hash.isEmpty()) {
+            low = p;
+            high = p;
+            return;
+        }
+        low = Math.min(low, p);
+        high = Math.max(high, p);
+        if (high - low > mask) {
+            resize(high - low + 1);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void resize(long span) {
+        int capacity = buckets.length;
+        while (capacity < span) {
+            if (capacity == 1 << 30) {
+                throw new IllegalArgumentException("Priorities span more than " + capacity
+                        + " values");
+            }
+            capacity *= 2;
+        }
+        Node<T>[] old = buckets;
+        buckets = (Node<T>[]) new Node[capacity];
+        mask = capacity - 1;
+        for (Node<T> head : old) {
+            Node<T> node = head;
+            while (node != null) {
+                Node<T> next = node.next;
+                link(node);
+                node = next;
+            }
+        }
+    }
+
+    /** Puts node at the front of the bucket for its priority. */
+    private void link(Node<T> node) {
+        int b = (int) (node.priority & mask);
+        Node<T> head = buckets[b];
+        node.prev = null;
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        buckets[b] = node;
+    }
+
+    private void unlink(Node<T> node) {
+        if (node.prev == null) {
+            buckets[(int) (node.priority & mask)] = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.next = null;
+        node.prev = null;
+    }
+
+    /** Advances low to the smallest priority present and returns its bucket. */
+    private Node<T> first() {
+        if (hash.isEmpty()) {
+            throw new NoSuchElementException("This MonotoneBucketMinPQ is empty");
+        }
+        Node<T> head = buckets[(int) (low & mask)];
+        while (head == null) {
+            low += 1;
+            head = buckets[(int) (low & mask)];
+        }
+        return head;
+    }
+
+    @Override
+    public int size() {
+        return hash.size();
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return hash.containsKey(item);
+    }
+
+    /** Adds an item with a given integer priority into this
+     * MonotoneBucketMinPQ. If the item is already present, or the priority is
+     * not an integer or is below the last priority removed, throws an
+     * IllegalArgumentException.
+     *
+     * @param item
+     * @param priority
+     */
+    @Override
+    public void add(T item, double priority) {
+        if (contains(item)) {
+            throw new IllegalArgumentException("Item is already in this MonotoneBucketMinPQ");
+        }
+        Node<T> node = new Node<>(item, key(priority));
+        cover(node.priority);
+        hash.put(item, node);
+        link(node);
+    }
+
+    @Override
+    public T getSmallest() {
+        return first().item;
+    }
+
+    @Override
+    public T removeSmallest() {
+        Node<T> node = first();
+        unlink(node);
+        hash.remove(node.item);
+        floor = node.priority;
+        removed = true;
+        return node.item;
+    }
+
+    /** Changes the priority of the given item. Throws NoSuchElementException if
+     * the item doesn't exist, and IllegalArgumentException if the priority is
+     * not an integer or is below the last priority removed.
+     *
+     * @param item
+     * @param priority
+     */
+    @Override
+    public void changePriority(T item, double priority) {
+        Node<T> node = hash.get(item);
+        if (node == null) {
+            throw new NoSuchElementException("Item is not in this MonotoneBucketMinPQ");
+        }
+        long p = key(priority);
+        if (p == node.priority) {
+            return;
+        }
+        unlink(node);
+        node.priority = p;
+        cover(p);
+        link(node);
+    }
+}
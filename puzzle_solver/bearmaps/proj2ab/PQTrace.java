@@ -0,0 +1,231 @@
+package bearmaps.proj2ab;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/** A recorded sequence of ExtrinsicMinPQ operations, with items renamed to
+ * the dense ids 0, 1, 2, ... in order of first appearance. A trace can be
+ * saved, loaded and replayed against any ExtrinsicMinPQ of Integers, so
+ * different heaps can be compared on exactly the workload a search made.
+ */
+public class PQTrace {
+    public static final byte ADD = 0;
+    public static final byte CHANGE_PRIORITY = 1;
+    public static final byte REMOVE_SMALLEST = 2;
+    public static final byte CONTAINS = 3;
+    public static final byte GET_SMALLEST = 4;
+    private static final int MAGIC = 0x50515452;
+
+    private byte[] ops;
+    private int[] items;
+    private double[] priorities;
+    private int length;
+    private int itemCount;
+    private Integer[] boxes;
+
+    /** PQTrace constructor for an empty trace. */
+    public PQTrace() {
+        ops = new byte[64];
+        items = new int[64];
+        priorities = new double[64];
+        length = 0;
+        itemCount = 0;
+    }
+
+    /** Appends an operation. Item and priority are ignored by operations
+     * that do not take them.
+     *
+     * @param op
+     * @param item
+     * @param priority
+     */
+    public void record(byte op, int item, double priority) {
+        if (op < ADD || op > GET_SMALLEST) {
+            throw new IllegalArgumentException("Unknown operation " + op);
+        }
+        if (length == ops.length) {
+            ops = Arrays.copyOf(ops, length * 2);
+            items = Arrays.copyOf(items, length * 2);
+            priorities = Arrays.copyOf(priorities, length * 2);
+        }
+        ops[length] = op;
+        items[length] = item;
+        priorities[length] = priority;
+        length += 1;
+        itemCount = Math.max(itemCount, item + 1);
+        boxes = null;
+    }
+
+    /** Returns the number of operations recorded.
+     *
+     * @return length
+     */
+    public int length() {
+        return length;
+    }
+
+    /** Returns the number of distinct items in the trace.
+     *
+     * @return item count
+     */
+    public int itemCount() {
+        return itemCount;
+    }
+
+    /** Returns the number of operations of the given kind.
+     *
+     * @param op
+     * @return count
+     */
+    public int count(byte op) {
+        int count = 0;
+        for (int i = 0; i < length; i += 1) {
+            if (ops[i] == op) {
+                count += 1;
+            }
+        }
+        return count;
+    }
+
+    /** The outcome of one replay: a checksum of the results, so that a JIT
+     * cannot skip the calls, and the number of operations that had to be
+     * substituted because the queue broke a tie differently.
+     */
+    public static class Replay {
+        private final long checksum;
+        private final int substitutions;
+
+        private Replay(long checksum, int substitutions) {
+            this.checksum = checksum;
+            this.substitutions = substitutions;
+        }
+
+        /** Returns a checksum of the replayed results.
+         *
+         * @return checksum
+         */
+        public long checksum() {
+            return checksum;
+        }
+
+        /** Returns the number of adds replayed as priority changes and the
+         * other way round.
+         *
+         * @return substitutions
+         */
+        public int substitutions() {
+            return substitutions;
+        }
+    }
+
+    /** Runs every operation of the trace against pq, which should start
+     * empty. The Integer items are boxed once up front, so the replay itself
+     * measures only the queue.
+     *
+     * Queues may break ties between equal priorities differently from the
+     * recorded one, after which an item can be present where the trace
+     * expected it absent or the other way round. When add throws the
+     * IllegalArgumentException for an item already present, it is replayed
+     * as a priority change, and when changePriority throws for a missing
+     * item (NoSuchElementException, or IllegalArgumentException in
+     * DoubleMapPQ) it is replayed as an add. Each substitution is counted,
+     * since it changes the workload. Any other exception, or one thrown
+     * while the item's presence does not explain it, is passed on.
+     *
+     * @param pq
+     * @return checksum and substitution count
+     */
+    public Replay replay(ExtrinsicMinPQ<Integer> pq) {
+        if (boxes == null) {
+            boxes = new Integer[itemCount];
+            for (int i = 0; i < itemCount; i += 1) {
+                boxes[i] = i;
+            }
+        }
+        long checksum = 0;
+        int substitutions = 0;
+        for (int i = 0; i < length; i += 1) {
+            switch (ops[i]) {
+                case ADD:
+                    try {
+                        pq.add(boxes[items[i]], priorities[i]);
+                    } catch (IllegalArgumentException e) {
+                        if (!pq.contains(boxes[items[i]])) {
+                            throw e;
+                        }
+                        pq.changePriority(boxes[items[i]], priorities[i]);
+                        substitutions += 1;
+                    }
+                    break;
+                case CHANGE_PRIORITY:
+                    try {
+                        pq.changePriority(boxes[items[i]], priorities[i]);
+                    } catch (IllegalArgumentException | NoSuchElementException e) {
+                        if (pq.contains(boxes[items[i]])) {
+                            throw e;
+                        }
+                        pq.add(boxes[items[i]], priorities[i]);
+                        substitutions += 1;
+                    }
+                    break;
+                case REMOVE_SMALLEST:
+                    checksum += pq.removeSmallest();
+                    break;
+                case CONTAINS:
+                    checksum += pq.contains(boxes[items[i]]) ? 1 : 0;
+                    break;
+                default:
+                    checksum += pq.getSmallest();
+                    break;
+            }
+        }
+        return new Replay(checksum + pq.size(), substitutions);
+    }
+
+    /** Writes this trace to file.
+     *
+     * @param file
+     */
+    public void writeTo(File file) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(length);
+            for (int i = 0; i < length; i += 1) {
+                out.writeByte(ops[i]);
+                out.writeInt(items[i]);
+                out.writeDouble(priorities[i]);
+            }
+        }
+    }
+
+    /** Reads a trace written by writeTo.
+     *
+     * @param file
+     * @return trace
+     */
+    public static PQTrace readFrom(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(
+                new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException(file + " is not a PQ trace");
+            }
+            int length = in.readInt();
+            PQTrace trace = new PQTrace();
+            for (int i = 0; i < length; i += 1) {
+                byte op = in.readByte();
+                int item = in.readInt();
+                trace.record(op, item, in.readDouble());
+            }
+            return trace;
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package bearmaps.proj2ab;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.NoSuchElementException;
+
+/** An ExtrinsicMinPQ backed by a pairing heap. Adding an item or lowering its
+ * priority only melds one node into the root, in O(1), which suits searches
+ * like A* that lower many priorities and remove comparatively few items.
+ * removeSmallest does the usual two-pass pairing of the root's children, in
+ * O(log n) amortized time, iteratively so deep heaps cannot overflow the
+ * stack. Raising a priority cuts the node out, pairs its children back in and
+ * re-inserts it.
+ */
+public class PairingHeapMinPQ<T> implements ExtrinsicMinPQ<T> {
+    private HashMap<T, Node<T>> hash;
+    private Node<T> root;
+    private ArrayList<Node<T>> pairs;
+
+    /** A heap node. Children form a doubly linked list through next and prev,
+     * where the first child's prev is its parent.
+     */
+    private static class Node<T> {
+        T item;
+        double priority;
+        Node<T> child;
+        Node<T> next;
+        Node<T> prev;
+
+        private Node(T t, double p) {
+            item = t;
+            priority = p;
+        }
+    }
+
+    /** PairingHeapMinPQ constructor. */
+    public PairingHeapMinPQ() {
+        hash = new HashMap<>();
+        root = null;
+        pairs = new ArrayList<>();
+    }
+
+    /** Makes the root with the larger priority the first child of the other
+     * and returns the new root. Either may be null.
+     */
+    private Node<T> meld(Node<T> a, Node<T> b) {
+        if (a == null) {
+            return b;
+        } else if (b == null) {
+            return a;
+        }
+        if (b.priority < a.priority) {
+            Node<T> t = a;
+            a = b;
+            b = t;
+        }
+        b.prev = a;
+        b.next = a.child;
+        if (a.child != null) {
+            a.child.prev = b;
+        }
+        a.child = b;
+        return a;
+    }
+
+    /** Melds the sibling list starting at first into one tree and returns
+     * its root: adjacent pairs are melded left to right, then the results
+     * are melded right to left.
+     */
+    private Node<T> mergePairs(Node<T> first) {
+        if (first == null) {
+            return null;
+        }
+        pairs.clear();
+        while (first != null) {
+            Node<T> a = first;
+            Node<T> b = a.next;
+            first = b == null ? null : b.next;
+            a.next = null;
+            a.prev = null;
+            if (b != null) {
+                b.next = null;
+                b.prev = null;
+            }
+            pairs.add(meld(a, b));
+        }
+        Node<T> result = pairs.get(pairs.size() - 1);
+        for (int i = pairs.size() - 2; i >= 0; i -= 1) {
+            result = meld(pairs.get(i), result);
+        }
+        pairs.clear();
+        return result;
+    }
+
+    /** Detaches node, with its subtree, from its parent and siblings. */
+    private void cut(Node<T> node) {
+        if (node.prev.child == node) {
+            node.prev.child = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.next = null;
+        node.prev = null;
+    }
+
+    @Override
+    public int size() {
+        return hash.size();
+    }
+
+    @Override
+    public boolean contains(T item) {
+        return hash.containsKey(item);
+    }
+
+    /** Adds an item with a given priority into this PairingHeapMinPQ.
+     * If the item is already present, throws an IllegalArgumentException.
+     *
+     * @param item
+     * @param priority
+     */
+    @Override
+    public void add(T item, double priority) {
+        if (contains(item)) {
+            throw new IllegalArgumentException("Item is already in this PairingHeapMinPQ");
+        }
+        Node<T> node = new Node<>(item, priority);
+        hash.put(item, node);
+        root = meld(root, node);
+    }
+
+    @Override
+    public T getSmallest() {
+        if (root == null) {
+            throw new NoSuchElementException("This PairingHeapMinPQ is empty");
+        }
+        return root.item;
+    }
+
+    @Override
+    public T removeSmallest() {
+        T min = getSmallest();
+        hash.remove(min);
+        root = mergePairs(root.child);
+        return min;
+    }
+
+    /** Changes the priority of the given item. Throws NoSuchElementException if
+     * the item doesn't exist.
+     *
+     * @param item
+     * @param priority
+     */
+    @Override
+    public void changePriority(T item, double priority) {
+        Node<T> node = hash.get(item);
+        if (node == null) {
+            throw new NoSuchElementException("Item is not in this PairingHeapMinPQ");
+        }
+        double old = node.priority;
+        node.priority = priority;
+        if (priority < old) {
+            if (node != root) {
+                cut(node);
+                root = meld(root, node);
+            }
+        } else if (priority > old) {
+            Node<T> children = mergePairs(node.child);
+            node.child = null;
+            if (node == root) {
+                root = children;
+            } else {
+                cut(node);
+                root = meld(root, children);
+            }
+            root = meld(root, node);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package bearmaps.proj2ab;
+
+import java.util.HashMap;
+
+/** An ExtrinsicMinPQ that passes every call through to another one and
+ * records it in a PQTrace, for replaying the same workload against other
+ * implementations later.
+ */
+public class RecordingMinPQ<T> implements ExtrinsicMinPQ<T> {
+    private ExtrinsicMinPQ<T> pq;
+    private PQTrace trace;
+    private HashMap<T, Integer> ids;
+
+    /** RecordingMinPQ constructor that records the calls made to pq.
+     *
+     * @param pq
+     */
+    public RecordingMinPQ(ExtrinsicMinPQ<T> pq) {
+        this.pq = pq;
+        trace = new PQTrace();
+        ids = new HashMap<>();
+    }
+
+    /** Returns the trace recorded so far.
+     *
+     * @return trace
+     */
+    public PQTrace trace() {
+        return trace;
+    }
+
+    private int id(T item) {
+        Integer id = ids.get(item);
+        if (id == null) {
+            id = ids.size();
+            ids.put(item, id);
+        }
+        return id;
+    }
+
+    @Override
+    public void add(T item, double priority) {
+        pq.add(item, priority);
+        trace.record(PQTrace.ADD, id(item), priority);
+    }
+
+    @Override
+    public boolean contains(T item) {
+        trace.record(PQTrace.CONTAINS, id(item), 0);
+        return pq.contains(item);
+    }
+
+    @Override
+    public T getSmallest() {
+        T item = pq.getSmallest();
+        trace.record(PQTrace.GET_SMALLEST, 0, 0);
+        return item;
+    }
+
+    @Override
+    public T removeSmallest() {
+        T item = pq.removeSmallest();
+        trace.record(PQTrace.REMOVE_SMALLEST, 0, 0);
+        return item;
+    }
+
+    @Override
+    public void changePriority(T item, double priority) {
+        pq.changePriority(item, priority);
+        trace.record(PQTrace.CHANGE_PRIORITY, id(item), priority);
+    }
+
+    @Override
+    public int size() {
+        return pq.size();
+    }
+}
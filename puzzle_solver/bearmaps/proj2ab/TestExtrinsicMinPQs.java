@@ -0,0 +1,303 @@
+package bearmaps.proj2ab;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+/** Runs the same random operations on every ExtrinsicMinPQ and checks each
+ * against DoubleMapPQ. Equal priorities may come out in any order, so the
+ * queues are compared on the priorities they remove rather than the items.
+ */
+public class TestExtrinsicMinPQs {
+    private static final int IDS = 2000;
+
+    /* Draws the priority of the next add or changePriority, given the
+     * priority last removed. */
+    private interface PrioritySupplier {
+        double next(Random rng, double floor);
+    }
+
+    private static final PrioritySupplier ANY_PRIORITY = (rng, floor) -> rng.nextInt(500);
+
+    /* An A*-like workload: integer priorities that never drop below the last
+     * one removed, mostly small steps above it and sometimes a long jump. */
+    private static final PrioritySupplier MONOTONE_PRIORITY = (rng, floor) ->
+            floor + (rng.nextInt(20) == 0 ? rng.nextInt(5000) : rng.nextInt(12));
+
+    private static void assertMatchesReference(ExtrinsicMinPQ<Integer> pq, long seed,
+                                               PrioritySupplier priorities) {
+        Random rng = new Random(seed);
+        DoubleMapPQ<Integer> expected = new DoubleMapPQ<>();
+        HashMap<Integer, Double> priority = new HashMap<>();
+        double floor = 0;
+        for (int i = 0; i < 200000; i += 1) {
+            int op = rng.nextInt(4);
+            int item = rng.nextInt(IDS);
+            double p = priorities.next(rng, floor);
+            if (op < 2) {
+                assertEquals(expected.contains(item), pq.contains(item));
+                if (expected.contains(item)) {
+                    expected.changePriority(item, p);
+                    pq.changePriority(item, p);
+                } else {
+                    expected.add(item, p);
+                    pq.add(item, p);
+                }
+                priority.put(item, p);
+            } else if (expected.size() > 0) {
+                assertEquals(priority.get(expected.getSmallest()), priority.get(pq.getSmallest()));
+                int e = expected.removeSmallest();
+                int a = pq.removeSmallest();
+                assertEquals(priority.get(e), priority.get(a));
+                if (e != a) {
+                    // keep the same items in both: take a out of expected, put e back
+                    expected.changePriority(a, Double.NEGATIVE_INFINITY);
+                    expected.removeSmallest();
+                    expected.add(e, priority.get(e));
+                }
+                floor = priority.get(a);
+            }
+            assertEquals(expected.size(), pq.size());
+        }
+    }
+
+    @Test
+    public void testRandomOperationsMatchDoubleMapPQ() {
+        assertMatchesReference(new ArrayHeapMinPQ<>(), 1, ANY_PRIORITY);
+        assertMatchesReference(new FourAryHeapMinPQ<>(), 2, ANY_PRIORITY);
+        assertMatchesReference(new PairingHeapMinPQ<>(), 3, ANY_PRIORITY);
+        assertMatchesReference(new IntIndexedMinPQ(IDS), 4, ANY_PRIORITY);
+    }
+
+    @Test
+    public void testArrayHeapTracksPositionsThroughChangePriority() {
+        // every swap moves a node in place, so changePriority relies on the
+        // position each node records; distinct priorities let items be compared
+        Random rng = new Random(7);
+        ArrayHeapMinPQ<Integer> pq = new ArrayHeapMinPQ<>();
+        DoubleMapPQ<Integer> expected = new DoubleMapPQ<>();
+        for (int item = 0; item < IDS; item += 1) {
+            double p = rng.nextDouble();
+            expected.add(item, p);
+            pq.add(item, p);
+        }
+        for (int i = 0; i < 200000; i += 1) {
+            int item = rng.nextInt(IDS);
+            double p = rng.nextDouble();
+            expected.changePriority(item, p);
+            pq.changePriority(item, p);
+            if (i % 1000 == 0) {
+                assertEquals(expected.getSmallest(), pq.getSmallest());
+            }
+        }
+        while (expected.size() > 0) {
+            assertEquals(expected.removeSmallest(), pq.removeSmallest());
+        }
+        assertEquals(0, pq.size());
+    }
+
+    @Test
+    public void testLongIndexedMatchesDoubleMapPQ() {
+        // ids that differ only above bit 40, half of them negative, would all
+        // share a bucket under a hash of the low bits; most of them are
+        // present at once, so the 16-slot queue has to grow() several times
+        long[] ids = new long[IDS];
+        for (int k = 0; k < IDS; k += 1) {
+            ids[k] = (long) (k - IDS / 2) << 40;
+        }
+        Random rng = new Random(8);
+        LongIndexedMinPQ pq = new LongIndexedMinPQ();
+        DoubleMapPQ<Long> expected = new DoubleMapPQ<>();
+        for (int i = 0; i < 200000; i += 1) {
+            long id = ids[rng.nextInt(IDS)];
+            double p = rng.nextDouble();
+            // add more often than remove until most ids are present
+            if (rng.nextInt(4) < (i < 20000 ? 3 : 2)) {
+                assertEquals(expected.contains(id), pq.contains(id));
+                if (expected.contains(id)) {
+                    expected.changePriority(id, p);
+                    pq.changePriority(id, p);
+                } else {
+                    expected.add(id, p);
+                    pq.add(id, p);
+                }
+            } else if (expected.size() > 0) {
+                long e = expected.removeSmallest();
+                assertEquals(e, pq.removeSmallestId());
+                assertFalse(pq.contains(e));
+            }
+            assertEquals(expected.size(), pq.size());
+        }
+        while (expected.size() > 0) {
+            assertEquals((long) expected.removeSmallest(), pq.removeSmallestId());
+        }
+    }
+
+    @Test
+    public void testTraceReplayMatchesRecording() {
+        RecordingMinPQ<Integer> recorded = new RecordingMinPQ<>(new ArrayHeapMinPQ<>());
+        Random rng = new Random(7);
+        // items first appear in the order 0, 1, 2, ... so trace ids equal items
+        int seen = 0;
+        for (int i = 0; i < 10000; i += 1) {
+            if (rng.nextBoolean() && recorded.size() > 0) {
+                recorded.removeSmallest();
+                continue;
+            }
+            int item = rng.nextInt(seen + 1);
+            if (item == seen) {
+                seen += 1;
+            }
+            if (recorded.contains(item)) {
+                recorded.changePriority(item, rng.nextDouble());
+            } else {
+                recorded.add(item, rng.nextDouble());
+            }
+        }
+        PQTrace trace = recorded.trace();
+        assertEquals(seen, trace.itemCount());
+        ExtrinsicMinPQ<Integer> replayed = new PairingHeapMinPQ<>();
+        assertEquals(0, trace.replay(replayed).substitutions());
+        assertEquals(recorded.size(), replayed.size());
+        while (recorded.size() > 0) {
+            assertEquals(recorded.removeSmallest(), replayed.removeSmallest());
+        }
+    }
+
+    @Test
+    public void testReplayPassesOnQueueFailures() {
+        PQTrace trace = new PQTrace();
+        trace.record(PQTrace.ADD, 0, 1.5);
+        trace.record(PQTrace.REMOVE_SMALLEST, 0, 0);
+        trace.record(PQTrace.ADD, 0, 0.5);
+        try {
+            // the bucket queue rejects the fractional priority, which is not a tie
+            trace.replay(new MonotoneBucketMinPQ<>());
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        throw new AssertionError("replay swallowed a queue failure");
+    }
+
+    @Test
+    public void testReplayCountsSubstitutions() {
+        PQTrace trace = new PQTrace();
+        trace.record(PQTrace.ADD, 0, 1);
+        trace.record(PQTrace.ADD, 1, 1);
+        trace.record(PQTrace.REMOVE_SMALLEST, 0, 0);
+        // the recording removed 0 and re-added it; a queue that breaks the tie
+        // the other way has to replay this add as a change and the next
+        // change as an add
+        trace.record(PQTrace.ADD, 0, 2);
+        trace.record(PQTrace.CHANGE_PRIORITY, 1, 3);
+        ExtrinsicMinPQ<Integer> pq = new ArrayHeapMinPQ<Integer>() {
+            @Override
+            public Integer removeSmallest() {
+                changePriority(1, 0);
+                return super.removeSmallest();
+            }
+        };
+        assertEquals(2, trace.replay(pq).substitutions());
+        assertEquals(2, pq.size());
+    }
+
+    @Test
+    public void testMonotoneBucketMatchesDoubleMapPQ() {
+        assertMatchesReference(new MonotoneBucketMinPQ<>(), 5, MONOTONE_PRIORITY);
+        assertMatchesReference(new ArrayHeapMinPQ<>(), 6, MONOTONE_PRIORITY);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMonotoneBucketRejectsFraction() {
+        new MonotoneBucketMinPQ<Integer>().add(1, 2.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMonotoneBucketRejectsPriorityBelowLastRemoved() {
+        MonotoneBucketMinPQ<Integer> pq = new MonotoneBucketMinPQ<>();
+        pq.add(1, 10);
+        pq.add(2, 12);
+        pq.removeSmallest();
+        pq.changePriority(2, 9);
+    }
+
+    /* Adds count new items to both queues, through addAll on pq. */
+    private static void addBatch(ArrayHeapMinPQ<Integer> pq, DoubleMapPQ<Integer> expected,
+                                 HashMap<Integer, Double> priority, int count, Random rng) {
+        List<Integer> items = new ArrayList<>();
+        double[] priorities = new double[count];
+        for (int i = 0; i < count; i += 1) {
+            int item = priority.size();
+            items.add(item);
+            priorities[i] = rng.nextInt(1000);
+            priority.put(item, priorities[i]);
+            expected.add(item, priorities[i]);
+        }
+        pq.addAll(items, priorities);
+        assertEquals(expected.size(), pq.size());
+    }
+
+    @Test
+    public void testAddAllAndDrainSmallest() {
+        Random rng = new Random(8);
+        ArrayHeapMinPQ<Integer> pq = new ArrayHeapMinPQ<>();
+        DoubleMapPQ<Integer> expected = new DoubleMapPQ<>();
+        HashMap<Integer, Double> priority = new HashMap<>();
+        // batches into an empty heap and larger than the heap are heapified,
+        // the small one is swum in
+        addBatch(pq, expected, priority, 1000, rng);
+        addBatch(pq, expected, priority, 5000, rng);
+        addBatch(pq, expected, priority, 100, rng);
+        Integer[] buffer = new Integer[64];
+        while (expected.size() > 0) {
+            int k = rng.nextInt(buffer.length + 1);
+            int n = pq.drainSmallest(k, buffer);
+            assertEquals(Math.min(k, expected.size()), n);
+            for (int i = 0; i < n; i += 1) {
+                assertEquals(priority.get(expected.removeSmallest()), priority.get(buffer[i]));
+            }
+            assertEquals(expected.size(), pq.size());
+        }
+    }
+
+    /* Checks that addAll(items, priorities) throws and leaves pq, holding only
+     * item 3, unchanged. */
+    private static void assertAddAllRejected(ArrayHeapMinPQ<Integer> pq, List<Integer> items,
+                                             double[] priorities) {
+        try {
+            pq.addAll(items, priorities);
+        } catch (IllegalArgumentException e) {
+            assertEquals(1, pq.size());
+            assertEquals(false, pq.contains(1));
+            assertEquals(3, (int) pq.getSmallest());
+            assertEquals(3, (int) pq.removeSmallest());
+            pq.add(3, 3);
+            return;
+        }
+        throw new AssertionError("addAll accepted a duplicate item");
+    }
+
+    @Test
+    public void testAddAllRejectsDuplicateAtomically() {
+        ArrayHeapMinPQ<Integer> pq = new ArrayHeapMinPQ<>();
+        pq.add(3, 3);
+        // an item already in the heap
+        assertAddAllRejected(pq, List.of(1, 2, 3), new double[]{1, 2, 3});
+        // an item repeated within the batch
+        assertAddAllRejected(pq, List.of(1, 1), new double[]{1, 2});
+        pq.addAll(List.of(1, 2), new double[]{1, 2});
+        assertEquals(1, (int) pq.removeSmallest());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void testPairingHeapEmpty() {
+        new PairingHeapMinPQ<Integer>().removeSmallest();
+    }
+}